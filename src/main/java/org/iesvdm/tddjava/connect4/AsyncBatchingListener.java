@@ -0,0 +1,292 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands the events of a game to another listener on a background thread,
+ * so a slow listener, e.g. one writing to a console or a file, never holds
+ * up the game.
+ * <p>
+ * Events go through a bounded lock-free ring of preallocated slots, so
+ * queueing one allocates nothing; only when the ring is full does the game
+ * wait for room. They are delivered in order, in batches of whatever has
+ * been queued meanwhile. A {@link Flushable} listener is flushed after every
+ * batch rather than after every event.
+ * <p>
+ * An exception thrown by the listener does not stop delivery; it is
+ * counted, and the first one is thrown back from {@link #close()}.
+ */
+public final class AsyncBatchingListener implements GameListener, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final byte MOVE = 0;
+
+    private static final byte WIN = 1;
+
+    private static final byte DRAW = 2;
+
+    private static final byte TURN_CHANGE = 3;
+
+    private static final byte TURN_QUERIED = 4;
+
+    private final GameListener delegate;
+
+    private final int mask;
+
+    /**
+     * Per slot, the position it may be written at, or that position + 1
+     * once the event in it can be read.
+     */
+    private final AtomicLongArray sequences;
+
+    private final byte[] kinds;
+
+    private final String[] players;
+
+    private final int[] columns;
+
+    private final int[] rows;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to deliver; only used by the worker.
+     */
+    private long head;
+
+    /**
+     * Producers between checking that the listener is open and publishing
+     * their event, so closing waits for them.
+     */
+    private final AtomicInteger producers = new AtomicInteger();
+
+    /**
+     * Set while the worker is parked, or about to be, waiting for events.
+     */
+    private final AtomicBoolean idle = new AtomicBoolean();
+
+    private final Thread worker;
+
+    private volatile boolean closed;
+
+    private volatile long failures;
+
+    private volatile RuntimeException firstFailure;
+
+    public AsyncBatchingListener(GameListener delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity events that can wait for delivery, rounded up to a
+     *                 power of two
+     */
+    public AsyncBatchingListener(GameListener delegate, int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new RuntimeException(String.format("Invalid capacity %d", capacity));
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.delegate = delegate;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int slot = 0; slot < size; slot++) {
+            sequences.set(slot, slot);
+        }
+        this.kinds = new byte[size];
+        this.players = new String[size];
+        this.columns = new int[size];
+        this.rows = new int[size];
+        this.worker = Thread.ofPlatform().daemon().name("connect4-listener").unstarted(this::deliver);
+        worker.start();
+    }
+
+    @Override
+    public void onMove(String player, int column, int row) {
+        enqueue(MOVE, player, column, row);
+    }
+
+    @Override
+    public void onWin(String player) {
+        enqueue(WIN, player, 0, 0);
+    }
+
+    @Override
+    public void onDraw() {
+        enqueue(DRAW, null, 0, 0);
+    }
+
+    @Override
+    public void onTurnChange(String player) {
+        enqueue(TURN_CHANGE, player, 0, 0);
+    }
+
+    @Override
+    public void onTurnQueried(String player) {
+        enqueue(TURN_QUERIED, player, 0, 0);
+    }
+
+    /**
+     * @return events, or flushes, the listener failed on so far
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Delivers the events still queued and stops the background thread.
+     *
+     * @throws RuntimeException caused by the first exception of the
+     *                          listener, if it threw any
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (firstFailure != null) {
+            throw new RuntimeException(String.format("The listener failed %d times", failures), firstFailure);
+        }
+    }
+
+    private void enqueue(byte kind, String player, int column, int row) {
+        producers.incrementAndGet();
+        try {
+            if (closed) {
+                throw new RuntimeException("The listener is closed");
+            }
+            long position;
+            int slot;
+            while (true) {
+                position = tail.get();
+                slot = (int) position & mask;
+                long sequence = sequences.get(slot);
+                if (sequence == position) {
+                    if (tail.compareAndSet(position, position + 1)) break;
+                } else if (sequence < position) {
+                    // Full: let the worker catch up
+                    if (!worker.isAlive()) {
+                        throw new RuntimeException("The listener is closed");
+                    }
+                    wakeUp();
+                    Thread.yield();
+                }
+            }
+            kinds[slot] = kind;
+            players[slot] = player;
+            columns[slot] = column;
+            rows[slot] = row;
+            sequences.set(slot, position + 1);
+        } finally {
+            producers.decrementAndGet();
+        }
+        wakeUp();
+    }
+
+    private void wakeUp() {
+        if (idle.get() && idle.compareAndSet(true, false)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void deliver() {
+        try {
+            while (true) {
+                if (deliverQueued()) {
+                    flush();
+                    continue;
+                }
+                if (closed) break;
+                idle.set(true);
+                // An event queued before the flag was set would not wake us up
+                if (!hasEvent() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle.set(false);
+            }
+            // Events from producers that got in before the close
+            boolean delivered = false;
+            while (producers.get() > 0 || hasEvent()) {
+                if (deliverQueued()) {
+                    delivered = true;
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            if (delivered) flush();
+        } finally {
+            closed = true;
+        }
+    }
+
+    private boolean hasEvent() {
+        return sequences.get((int) head & mask) == head + 1;
+    }
+
+    /**
+     * @return whether any event was delivered
+     */
+    private boolean deliverQueued() {
+        boolean delivered = false;
+        while (hasEvent()) {
+            int slot = (int) head & mask;
+            try {
+                dispatch(kinds[slot], players[slot], columns[slot], rows[slot]);
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+            players[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            delivered = true;
+        }
+        return delivered;
+    }
+
+    private void dispatch(byte kind, String player, int column, int row) {
+        switch (kind) {
+            case MOVE:
+                delegate.onMove(player, column, row);
+                break;
+            case WIN:
+                delegate.onWin(player);
+                break;
+            case DRAW:
+                delegate.onDraw();
+                break;
+            case TURN_CHANGE:
+                delegate.onTurnChange(player);
+                break;
+            default:
+                delegate.onTurnQueried(player);
+        }
+    }
+
+    private void flush() {
+        if (delegate instanceof Flushable flushable) {
+            try {
+                flushable.flush();
+            } catch (IOException | RuntimeException e) {
+                fail(e instanceof RuntimeException runtime ? runtime : new RuntimeException(e));
+            }
+        }
+    }
+
+    private void fail(RuntimeException e) {
+        if (firstFailure == null) {
+            firstFailure = e;
+        }
+        failures++;
+    }
+}
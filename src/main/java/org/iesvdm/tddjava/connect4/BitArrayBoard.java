@@ -0,0 +1,68 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Dense {@link ConnectNBoard} for boards of any size that fit in memory: a
+ * flat array of bits, one per cell and player, packed into {@code long}s
+ * column by column.
+ * <p>
+ * Unlike {@link BitBoard}, it is not a bitboard searched with shifts: cells
+ * are read one at a time, and {@link ConnectNGame} finds lines by walking
+ * from the last disc.
+ */
+public class BitArrayBoard implements ConnectNBoard {
+
+    private final int columns;
+
+    private final int rows;
+
+    private final long[][] discs;
+
+    private final int[] heights;
+
+    public BitArrayBoard(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        int words = (int) (((long) columns * rows + Long.SIZE - 1) / Long.SIZE);
+        this.discs = new long[2][words];
+        this.heights = new int[columns];
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    @Override
+    public int getPlayerAt(int column, int row) {
+        long index = (long) column * rows + row;
+        int word = (int) (index >>> 6);
+        long bit = 1L << index;
+        if ((discs[0][word] & bit) != 0) return 0;
+        if ((discs[1][word] & bit) != 0) return 1;
+        return EMPTY;
+    }
+
+    @Override
+    public void push(int column, int player) {
+        long index = (long) column * rows + heights[column]++;
+        discs[player][(int) (index >>> 6)] |= 1L << index;
+    }
+
+    @Override
+    public void pop(int column) {
+        long index = (long) column * rows + --heights[column];
+        long bit = ~(1L << index);
+        discs[0][(int) (index >>> 6)] &= bit;
+        discs[1][(int) (index >>> 6)] &= bit;
+    }
+}
@@ -0,0 +1,397 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Bitboard representation of a Connect4 position: one {@code long} per player
+ * plus the height of every column.
+ * <p>
+ * Bit {@code column * HEIGHT + row} is set when that cell holds a disc of the
+ * player. Every column has an extra empty row on top, so shifting a line of
+ * discs never wraps into the next column.
+ */
+public class BitBoard {
+
+    public static final int COLUMNS = Connect4.COLUMNS;
+
+    public static final int ROWS = Connect4.ROWS;
+
+    public static final int HEIGHT = ROWS + 1;
+
+    public static final int SIZE = COLUMNS * ROWS;
+
+    public static final int EMPTY = -1;
+
+    private static final int[] DIRECTIONS = {1, HEIGHT, HEIGHT + 1, HEIGHT - 1};
+
+    private static final int[] LINE_DIRECTIONS = {HEIGHT, HEIGHT - 1, HEIGHT + 1};
+
+    private static final long BOTTOM_MASK = bottomMask();
+
+    private static final long BOARD_MASK = BOTTOM_MASK * ((1L << ROWS) - 1);
+
+    /**
+     * Random number for every player and cell. The hash of a position is the
+     * xor of the numbers of its discs, so a move updates it with one xor.
+     */
+    private static final long[][] ZOBRIST = zobristNumbers();
+
+    /**
+     * The same numbers with the columns swapped left to right, which give
+     * the hash of the mirrored position.
+     */
+    private static final long[][] MIRROR_ZOBRIST = mirror(ZOBRIST);
+
+    private final long[] discs = new long[2];
+
+    private final int[] heights = new int[COLUMNS];
+
+    /**
+     * Column of every disc played, in order, so moves can be taken back.
+     */
+    private final byte[] history = new byte[SIZE];
+
+    private int moves;
+
+    private long lastMove;
+
+    private long hash;
+
+    private long mirrorHash;
+
+    public BitBoard copy() {
+        BitBoard copy = new BitBoard();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Turns this board into the same position as the other one, so a board
+     * can be reused instead of copied.
+     */
+    public void copyFrom(BitBoard other) {
+        discs[0] = other.discs[0];
+        discs[1] = other.discs[1];
+        System.arraycopy(other.heights, 0, heights, 0, COLUMNS);
+        System.arraycopy(other.history, 0, history, 0, other.moves);
+        moves = other.moves;
+        lastMove = other.lastMove;
+        hash = other.hash;
+        mirrorHash = other.mirrorHash;
+    }
+
+    /**
+     * Empties the board so it can be reused for another game.
+     */
+    public void reset() {
+        discs[0] = 0;
+        discs[1] = 0;
+        Arrays.fill(heights, 0);
+        moves = 0;
+        lastMove = 0;
+        hash = 0;
+        mirrorHash = 0;
+    }
+
+    public boolean canPlay(int column) {
+        return heights[column] < ROWS;
+    }
+
+    /**
+     * Drops a disc of the player to move into the column.
+     *
+     * @return the row where the disc landed
+     */
+    public int play(int column) {
+        int row = heights[column]++;
+        int player = moves & 1;
+        int cell = column * HEIGHT + row;
+        lastMove = 1L << cell;
+        discs[player] |= lastMove;
+        hash ^= ZOBRIST[player][cell];
+        mirrorHash ^= MIRROR_ZOBRIST[player][cell];
+        history[moves++] = (byte) column;
+        return row;
+    }
+
+    /**
+     * Takes back the last disc played.
+     *
+     * @return the column it was played in
+     */
+    public int undo() {
+        int column = history[--moves];
+        int player = moves & 1;
+        int cell = column * HEIGHT + --heights[column];
+        discs[player] ^= 1L << cell;
+        hash ^= ZOBRIST[player][cell];
+        mirrorHash ^= MIRROR_ZOBRIST[player][cell];
+        if (moves > 0) {
+            int previous = history[moves - 1];
+            lastMove = bit(previous, heights[previous] - 1);
+        } else {
+            lastMove = 0;
+        }
+        return column;
+    }
+
+    /**
+     * @return the column of the disc played at the given turn, counting from 0
+     */
+    public int getColumn(int move) {
+        return history[move];
+    }
+
+    /**
+     * @return the column of the last disc played, or -1 on an empty board
+     */
+    public int getLastColumn() {
+        return moves == 0 ? -1 : history[moves - 1];
+    }
+
+    /**
+     * Whether the last disc played completed four in a row for its owner.
+     */
+    public boolean isLastMoveWinning() {
+        return moves > 0 && isWinningDisc(discs[(moves - 1) & 1], lastMove);
+    }
+
+    /**
+     * @return bit {@code c} set for every column {@code c} that can take
+     * another disc
+     */
+    public int legalMoves() {
+        int columns = 0;
+        for (int column = 0; column < COLUMNS; column++) {
+            if (heights[column] < ROWS) columns |= 1 << column;
+        }
+        return columns;
+    }
+
+    public int getHeight(int column) {
+        return heights[column];
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public boolean isFull() {
+        return moves == SIZE;
+    }
+
+    /**
+     * @return 0 for the first player, 1 for the second one
+     */
+    public int getCurrentPlayer() {
+        return moves & 1;
+    }
+
+    public long getDiscs(int player) {
+        return discs[player];
+    }
+
+    /**
+     * The cells a disc can be dropped into right now, one per column that
+     * is not full.
+     */
+    public long possibleMoves() {
+        return possible(discs[0] | discs[1]);
+    }
+
+    /**
+     * The playable cells where the player would complete four in a row.
+     */
+    public long winningMoves(int player) {
+        return threats(player) & possibleMoves();
+    }
+
+    /**
+     * The empty cells, playable or not, where the player would complete four
+     * in a row.
+     */
+    public long threats(int player) {
+        return winningCells(discs[player], discs[0] | discs[1]);
+    }
+
+    /**
+     * The playable cells where the player to move does not hand the opponent
+     * an immediate win. Winning moves are always included. Zero means that
+     * every move loses.
+     */
+    public long nonLosingMoves() {
+        long mask = discs[0] | discs[1];
+        long current = discs[moves & 1];
+        return nonLosingMoves(current, mask) | (winningCells(current, mask) & possible(mask));
+    }
+
+    /**
+     * Unique key of the position: the discs of the player to move plus all
+     * the discs, which fits in {@code COLUMNS * HEIGHT} bits.
+     */
+    public long getKey() {
+        return discs[moves & 1] + (discs[0] | discs[1]);
+    }
+
+    /**
+     * Zobrist hash of the discs on the board, kept up to date on every move.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Zobrist hash of the position mirrored left to right.
+     */
+    public long getMirrorHash() {
+        return mirrorHash;
+    }
+
+    /**
+     * Key shared by the position and its mirror image, which always have the
+     * same score.
+     */
+    public long getCanonicalKey() {
+        return Math.min(hash, mirrorHash);
+    }
+
+    /**
+     * @return the player owning the cell, or {@link #EMPTY}
+     */
+    public int getPlayerAt(int column, int row) {
+        long cell = bit(column, row);
+        if ((discs[0] & cell) != 0) return 0;
+        if ((discs[1] & cell) != 0) return 1;
+        return EMPTY;
+    }
+
+    public static long bit(int column, int row) {
+        return 1L << (column * HEIGHT + row);
+    }
+
+    /**
+     * All the cells of the column, e.g. to check whether a move mask has a
+     * cell in it.
+     */
+    public static long columnMask(int column) {
+        return ((1L << ROWS) - 1) << column * HEIGHT;
+    }
+
+    /**
+     * @return the column of a single cell of a move mask
+     */
+    public static int columnOf(long cell) {
+        return Long.numberOfTrailingZeros(cell) / HEIGHT;
+    }
+
+    /**
+     * Whether the discs contain four in a row anywhere on the board.
+     */
+    public static boolean hasFour(long discs) {
+        for (int direction : DIRECTIONS) {
+            long pairs = discs & (discs >>> direction);
+            if ((pairs & (pairs >>> 2 * direction)) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the discs contain four in a row going through the given cell.
+     */
+    public static boolean isWinningDisc(long discs, long cell) {
+        for (int direction : DIRECTIONS) {
+            long pairs = discs & (discs >>> direction);
+            long fours = pairs & (pairs >>> 2 * direction);
+            long starts = cell | (cell >>> direction) | (cell >>> 2 * direction) | (cell >>> 3 * direction);
+            if ((fours & starts) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves that do not hand the opponent an immediate win, for a player to
+     * move that cannot win straight away.
+     *
+     * @param current discs of the player to move
+     * @param mask    discs of both players
+     */
+    static long nonLosingMoves(long current, long mask) {
+        long possible = possible(mask);
+        long opponentWins = winningCells(current ^ mask, mask);
+        long forced = possible & opponentWins;
+        if (forced != 0) {
+            // More than one forced move means the opponent wins anyway
+            if ((forced & (forced - 1)) != 0) return 0;
+            possible = forced;
+        }
+        return possible & ~(opponentWins >>> 1);
+    }
+
+    static long possible(long mask) {
+        return (mask + BOTTOM_MASK) & BOARD_MASK;
+    }
+
+    /**
+     * Empty cells that would complete four in a row for the discs.
+     */
+    static long winningCells(long discs, long mask) {
+        long cells = (discs << 1) & (discs << 2) & (discs << 3);
+        for (int direction : LINE_DIRECTIONS) {
+            long pair = (discs << direction) & (discs << 2 * direction);
+            cells |= pair & (discs << 3 * direction);
+            cells |= pair & (discs >>> direction);
+            pair = (discs >>> direction) & (discs >>> 2 * direction);
+            cells |= pair & (discs << direction);
+            cells |= pair & (discs >>> 3 * direction);
+        }
+        return cells & (BOARD_MASK ^ mask);
+    }
+
+    /**
+     * @return the number to xor into {@link #getHash()} when the player gets
+     * the cell, given as a single bit
+     */
+    static long zobrist(int player, long cell) {
+        return ZOBRIST[player][Long.numberOfTrailingZeros(cell)];
+    }
+
+    /**
+     * @return the number to xor into {@link #getMirrorHash()} when the player
+     * gets the cell, given as a single bit
+     */
+    static long mirrorZobrist(int player, long cell) {
+        return MIRROR_ZOBRIST[player][Long.numberOfTrailingZeros(cell)];
+    }
+
+    private static long bottomMask() {
+        long mask = 0;
+        for (int column = 0; column < COLUMNS; column++) {
+            mask |= 1L << column * HEIGHT;
+        }
+        return mask;
+    }
+
+    private static long[][] zobristNumbers() {
+        // Fixed seed, so keys stay the same from one run to the next
+        SplittableRandom random = new SplittableRandom(0x5EED_C4L);
+        long[][] numbers = new long[2][COLUMNS * HEIGHT];
+        for (long[] player : numbers) {
+            for (int cell = 0; cell < player.length; cell++) {
+                player[cell] = random.nextLong();
+            }
+        }
+        return numbers;
+    }
+
+    private static long[][] mirror(long[][] numbers) {
+        long[][] mirrored = new long[2][COLUMNS * HEIGHT];
+        for (int player = 0; player < 2; player++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                System.arraycopy(numbers[player], (COLUMNS - 1 - column) * HEIGHT,
+                        mirrored[player], column * HEIGHT, HEIGHT);
+            }
+        }
+        return mirrored;
+    }
+}
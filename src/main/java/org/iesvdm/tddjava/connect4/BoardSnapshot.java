@@ -0,0 +1,81 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Immutable copy of a {@link Connect4} position: the discs of each player
+ * as {@link BitBoard} masks plus a little game state. A game publishes a
+ * new one after every change, so other threads can read a consistent
+ * position at any time without locks.
+ */
+public final class BoardSnapshot {
+
+    static final BoardSnapshot EMPTY = new BoardSnapshot(0, 0, 0, -1, null);
+
+    private final long red;
+
+    private final long green;
+
+    private final int moves;
+
+    private final int lastColumn;
+
+    private final Connect4.Color winner;
+
+    private BoardSnapshot(long red, long green, int moves, int lastColumn, Connect4.Color winner) {
+        this.red = red;
+        this.green = green;
+        this.moves = moves;
+        this.lastColumn = lastColumn;
+        this.winner = winner;
+    }
+
+    static BoardSnapshot of(BitBoard board, Connect4.Color winner) {
+        return new BoardSnapshot(board.getDiscs(0), board.getDiscs(1), board.getMoves(),
+                board.getLastColumn(), winner);
+    }
+
+    /**
+     * @return the colour of the disc in the cell, both counted from 0, or
+     * {@link Connect4.Color#EMPTY}
+     */
+    public Connect4.Color getColorAt(int column, int row) {
+        long cell = BitBoard.bit(column, row);
+        if ((red & cell) != 0) return Connect4.Color.RED;
+        if ((green & cell) != 0) return Connect4.Color.GREEN;
+        return Connect4.Color.EMPTY;
+    }
+
+    public int getHeight(int column) {
+        return Long.bitCount((red | green) & BitBoard.columnMask(column));
+    }
+
+    public long getDiscs(Connect4.Color color) {
+        return color == Connect4.Color.RED ? red : color == Connect4.Color.GREEN ? green : 0;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return the column (zero based) of the last disc, or -1 on an empty
+     * board
+     */
+    public int getLastColumn() {
+        return lastColumn;
+    }
+
+    public Connect4.Color getCurrentPlayer() {
+        return Connect4.Color.of(moves & 1);
+    }
+
+    /**
+     * @return the winner, or null while nobody has won
+     */
+    public Connect4.Color getWinner() {
+        return winner;
+    }
+
+    public boolean isFinished() {
+        return winner != null || moves == BitBoard.SIZE;
+    }
+}
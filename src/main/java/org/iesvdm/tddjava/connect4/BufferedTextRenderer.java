@@ -0,0 +1,94 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.PrintStream;
+
+/**
+ * Collects the same text the console shows in memory, until it is flushed.
+ */
+public class BufferedTextRenderer implements Connect4Renderer {
+
+    private static final char DELIMITER = '|';
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilder text = new StringBuilder();
+
+    @Override
+    public void discPlaced(BitBoard board) {
+        appendBoard(text, board);
+    }
+
+    @Override
+    public void turnChanged(Connect4.Color player) {
+        text.append("Current turn: ").append(player).append(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void winner(Connect4.Color player) {
+        text.append(player).append(" wins").append(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void draw() {
+        text.append("It's a draw").append(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void columnFull(BitBoard board, int discs) {
+        text.append(discs).append(LINE_SEPARATOR);
+        text.append("There's no room for a new disc in this column").append(LINE_SEPARATOR);
+        appendBoard(text, board);
+    }
+
+    @Override
+    public void columnOutOfBounds(BitBoard board) {
+        text.append("Column out of bounds").append(LINE_SEPARATOR);
+        appendBoard(text, board);
+    }
+
+    /**
+     * Appends a board published earlier, like {@link #discPlaced(BitBoard)}.
+     */
+    void append(BoardSnapshot board) {
+        appendBoard(text, board);
+    }
+
+    public String getText() {
+        return text.toString();
+    }
+
+    public void flushTo(PrintStream out) {
+        out.print(text);
+        text.setLength(0);
+    }
+
+    public void clear() {
+        text.setLength(0);
+    }
+
+    static String boardText(BitBoard board) {
+        StringBuilder text = new StringBuilder();
+        appendBoard(text, board);
+        return text.toString();
+    }
+
+    static void appendBoard(StringBuilder text, BitBoard board) {
+        for (int row = BitBoard.ROWS - 1; row >= 0; --row) {
+            text.append(DELIMITER);
+            for (int col = 0; col < BitBoard.COLUMNS; ++col) {
+                text.append(Connect4.Color.of(board.getPlayerAt(col, row))).append(DELIMITER);
+            }
+            text.append(LINE_SEPARATOR);
+        }
+    }
+
+    static void appendBoard(StringBuilder text, BoardSnapshot board) {
+        for (int row = BitBoard.ROWS - 1; row >= 0; --row) {
+            text.append(DELIMITER);
+            for (int col = 0; col < BitBoard.COLUMNS; ++col) {
+                text.append(board.getColorAt(col, row)).append(DELIMITER);
+            }
+            text.append(LINE_SEPARATOR);
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package org.iesvdm.tddjava.connect4;
 
-import java.util.Arrays;
 import java.util.Scanner;
-import java.util.StringJoiner;
-import java.util.regex.Pattern;
 
 /**
  * Test-last implementation
@@ -19,6 +16,20 @@ public class Connect4 {
             this.value = value;
         }
 
+        /**
+         * Maps a {@link BitBoard} player index to its colour.
+         */
+        public static Color of(int player) {
+            switch (player) {
+                case 0:
+                    return RED;
+                case 1:
+                    return GREEN;
+                default:
+                    return EMPTY;
+            }
+        }
+
         @Override
         public String toString() {
             return String.valueOf(value);
@@ -35,14 +46,35 @@ public class Connect4 {
 
     public static final int DISCS_FOR_WIN = 4;
 
-    private static final String DELIMITER = "|";
+    /**
+     * Threads used by {@link ParallelConnect4Solver}, set with the
+     * {@code connect4.solver.threads} system property.
+     */
+    public static final int SOLVER_THREADS =
+            Integer.getInteger("connect4.solver.threads", Runtime.getRuntime().availableProcessors());
+
+    private final BitBoard board = new BitBoard();
+
+    private final Connect4Renderer renderer;
+
+    /**
+     * Latest position, replaced after every change so any thread can read
+     * it without locking.
+     */
+    private volatile BoardSnapshot snapshot = BoardSnapshot.EMPTY;
 
-    private Color[][] board = new Color[COLUMNS][ROWS];
+    /**
+     * Winner before each move, indexed by number of discs, so undoing a move
+     * restores it.
+     */
+    private final Color[] previousWinners = new Color[BitBoard.SIZE];
 
     public Connect4() {
-        for (Color[] column : board) {
-            Arrays.fill(column, Color.EMPTY);
-        }
+        this(new ConsoleRenderer(System.out));
+    }
+
+    public Connect4(Connect4Renderer renderer) {
+        this.renderer = renderer;
     }
 
     private void switchPlayer() {
@@ -51,108 +83,151 @@ public class Connect4 {
         } else {
             currentPlayer = Color.RED;
         }
-        System.out.println("Current turn: " + currentPlayer);
+        renderer.turnChanged(currentPlayer);
     }
 
     public void printBoard() {
-        for (int row = ROWS - 1; row >= 0; --row) {
-            StringJoiner stringJoiner = new StringJoiner(DELIMITER, DELIMITER, DELIMITER);
-            for (int col = 0; col < COLUMNS; ++col) {
-                stringJoiner.add(board[col][row].toString());
-            }
-            System.out.println(stringJoiner.toString());
-        }
+        System.out.print(BufferedTextRenderer.boardText(board));
     }
 
     public void putDisc(int column) {
+        if (drop(column)) {
+            snapshot = BoardSnapshot.of(board, winner);
+        }
+    }
+
+    /**
+     * Puts a disc like {@link #putDisc(int)} but leaves the published
+     * {@link #getSnapshot() snapshot} alone, so search code can explore
+     * moves in place without allocating. Pair it with
+     * {@link #unmakeMove(int)}.
+     */
+    public void makeMove(int column) {
+        drop(column);
+    }
+
+    /**
+     * Takes back the last disc, restoring the winner and the player to move.
+     * The renderer is only told through
+     * {@link Connect4Renderer#discRemoved(BitBoard, Color)}.
+     *
+     * @return the column (one based) the disc was taken from
+     */
+    public int undo() {
+        int column = takeBack();
+        snapshot = BoardSnapshot.of(board, winner);
+        return column;
+    }
+
+    /**
+     * Takes back the last disc, which must have been put in the column.
+     * Like {@link #makeMove(int)}, it does not publish a snapshot.
+     */
+    public void unmakeMove(int column) {
+        if (board.getLastColumn() + 1 != column) {
+            throw new RuntimeException(String.format("Last disc was not put in column %d", column));
+        }
+        takeBack();
+    }
+
+    /**
+     * @return whether the disc was put
+     */
+    private boolean drop(int column) {
         if (column > 0 && column <= COLUMNS) {
             int numOfDiscs = getNumberOfDiscsInColumn(column - 1);
             if (numOfDiscs < ROWS) {
-                board[column - 1][numOfDiscs] = currentPlayer;
-                printBoard();
-                checkWinCondition(column - 1, numOfDiscs);
+                previousWinners[board.getMoves()] = winner;
+                board.play(column - 1);
+                renderer.discPlaced(board);
+                checkWinCondition();
                 switchPlayer();
+                return true;
             } else {
-                System.out.println(numOfDiscs);
-                System.out.println("There's no room for a new disc in this column");
-                printBoard();
+                renderer.columnFull(board, numOfDiscs);
             }
         } else {
-            System.out.println("Column out of bounds");
-            printBoard();
+            renderer.columnOutOfBounds(board);
         }
+        return false;
+    }
+
+    private int takeBack() {
+        if (board.getMoves() == 0) {
+            throw new RuntimeException("There are no discs to take back");
+        }
+        int column = board.undo();
+        winner = previousWinners[board.getMoves()];
+        currentPlayer = Color.of(board.getCurrentPlayer());
+        renderer.discRemoved(board, winner);
+        return column + 1;
+    }
+
+    /**
+     * Whether the one based column has room for another disc.
+     */
+    boolean canPlay(int column) {
+        return column > 0 && column <= COLUMNS && board.canPlay(column - 1);
+    }
+
+    public Color getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public Color getWinner() {
+        return winner;
     }
 
     private int getNumberOfDiscsInColumn(int column) {
         if (column >= 0 && column < COLUMNS) {
-            int row;
-            for (row = 0; row < ROWS; row++) {
-                if (Color.EMPTY == board[column][row]) return row;
-            }
-            return row;
+            return board.getHeight(column);
         }
         return -1;
     }
 
-    private void checkWinCondition(int col, int row) {
-        Pattern winPattern = Pattern.compile(".*" + currentPlayer + "{" + DISCS_FOR_WIN + "}.*");
-
-        // Vertical check
-        StringJoiner stringJoiner = new StringJoiner("");
-        for (int auxRow = 0; auxRow < ROWS; ++auxRow) {
-            stringJoiner.add(board[col][auxRow].toString());
-        }
-        if (winPattern.matcher(stringJoiner.toString()).matches()) {
+    private void checkWinCondition() {
+        if (board.isLastMoveWinning()) {
             winner = currentPlayer;
-            System.out.println(currentPlayer + " wins");
-            return;
+            renderer.winner(currentPlayer);
         }
+    }
 
-        // Horizontal check
-        stringJoiner = new StringJoiner("");
-        for (int column = 0; column < COLUMNS; ++column) {
-            stringJoiner.add(board[column][row].toString());
-        }
-        if (winPattern.matcher(stringJoiner.toString()).matches()) {
-            winner = currentPlayer;
-            System.out.println(currentPlayer + " wins");
-            return;
-        }
+    /**
+     * @return a copy of the current position, e.g. to hand it to a
+     * {@link Connect4Solver}
+     */
+    public BitBoard getPosition() {
+        return board.copy();
+    }
 
-        // Diagonal checks
-        int startOffset = Math.min(col, row);
-        int column = col - startOffset, auxRow = row - startOffset;
-        stringJoiner = new StringJoiner("");
-        do {
-            stringJoiner.add(board[column++][auxRow++].toString());
-        } while (column < COLUMNS && auxRow < ROWS);
-        if (winPattern.matcher(stringJoiner.toString()).matches()) {
-            winner = currentPlayer;
-            System.out.println(currentPlayer + " wins");
-            return;
-        }
+    /**
+     * @return the position after the last {@link #putDisc(int)} or
+     * {@link #undo()}; safe to call from any thread while the game goes on
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-        startOffset = Math.min(col, ROWS - 1 - row);
-        column = col - startOffset;
-        auxRow = row + startOffset;
-        stringJoiner = new StringJoiner("");
-        do {
-            stringJoiner.add(board[column++][auxRow--].toString());
-        } while (column < COLUMNS && auxRow >= 0);
-        if (winPattern.matcher(stringJoiner.toString()).matches()) {
-            winner = currentPlayer;
-            System.out.println(currentPlayer + " wins");
-        }
+    /**
+     * Hash of the position, the same for its mirror image, e.g. to cache
+     * evaluations across games.
+     */
+    public long positionKey() {
+        return board.getCanonicalKey();
+    }
+
+    /**
+     * @return bit {@code c} set when column {@code c + 1} can take another
+     * disc
+     */
+    public int legalMoves() {
+        return board.legalMoves();
     }
 
     public boolean isFinished() {
         if (winner != null) return true;
-        int numOfDiscs = 0;
-        for (int col = 0; col < COLUMNS; ++col) {
-            numOfDiscs += getNumberOfDiscsInColumn(col);
-        }
-        if (numOfDiscs >= COLUMNS * ROWS) {
-            System.out.println("It's a draw");
+        if (board.isFull()) {
+            renderer.draw();
             return true;
         }
         return false;
@@ -0,0 +1,251 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Counts the positions reachable in exactly a given number of moves, the
+ * way chess programs check their move generators. A game that has been won
+ * has no moves left. Every board implementation is plugged in through a
+ * {@link Backend}, so all of them can be checked against the same counts and
+ * timed on the same work.
+ * <p>
+ * The moves of the root are split between threads, each one with its own
+ * board.
+ */
+public class Connect4Perft {
+
+    /**
+     * Counts from the empty board, indexed by depth.
+     */
+    public static final long[] EMPTY_BOARD_COUNTS = {
+            1, 7, 49, 343, 2401, 16807, 117649, 823536, 5673234, 39394572, 268031646
+    };
+
+    /**
+     * The moves a perft needs from a board. Columns are zero based.
+     */
+    public interface Backend {
+
+        boolean canPlay(int column);
+
+        void play(int column);
+
+        void undo();
+
+        boolean isLastMoveWinning();
+    }
+
+    private final Supplier<Backend> backends;
+
+    private final int threads;
+
+    private long elapsedNanos;
+
+    private long nodeCount;
+
+    /**
+     * @param backends gives a new empty board every time it is called
+     */
+    public Connect4Perft(Supplier<Backend> backends, int threads) {
+        this.backends = backends;
+        this.threads = threads;
+    }
+
+    public static Backend bitBoard() {
+        BitBoard board = new BitBoard();
+        return new Backend() {
+            @Override
+            public boolean canPlay(int column) {
+                return board.canPlay(column);
+            }
+
+            @Override
+            public void play(int column) {
+                board.play(column);
+            }
+
+            @Override
+            public void undo() {
+                board.undo();
+            }
+
+            @Override
+            public boolean isLastMoveWinning() {
+                return board.isLastMoveWinning();
+            }
+        };
+    }
+
+    /**
+     * A whole {@link Connect4} game, rendering nothing and publishing no
+     * snapshots.
+     */
+    public static Backend connect4() {
+        Connect4 game = new Connect4(Connect4Renderer.NULL);
+        int[] columns = new int[BitBoard.SIZE];
+        return new Backend() {
+            private int moves;
+
+            @Override
+            public boolean canPlay(int column) {
+                return game.canPlay(column + 1);
+            }
+
+            @Override
+            public void play(int column) {
+                game.makeMove(column + 1);
+                columns[moves++] = column + 1;
+            }
+
+            @Override
+            public void undo() {
+                game.unmakeMove(columns[--moves]);
+            }
+
+            @Override
+            public boolean isLastMoveWinning() {
+                return game.getWinner() != null;
+            }
+        };
+    }
+
+    /**
+     * A {@link ConnectNGame} set up as standard Connect4.
+     */
+    public static Backend connectN() {
+        ConnectNGame game = ConnectNGame.connect4();
+        return new Backend() {
+            @Override
+            public boolean canPlay(int column) {
+                return game.canPlay(column);
+            }
+
+            @Override
+            public void play(int column) {
+                game.play(column);
+            }
+
+            @Override
+            public void undo() {
+                game.undo();
+            }
+
+            @Override
+            public boolean isLastMoveWinning() {
+                return game.isLastMoveWinning();
+            }
+        };
+    }
+
+    /**
+     * @return the number of positions reached from the empty board
+     */
+    public long count(int depth) {
+        return count(new BitBoard(), depth);
+    }
+
+    /**
+     * @param root the position to start from; only its moves are used, so
+     *             it can come from {@link Connect4#getPosition()}
+     * @return the number of positions reached in exactly {@code depth} moves
+     */
+    public long count(BitBoard root, int depth) {
+        long start = System.nanoTime();
+        List<Callable<Long>> workers = new ArrayList<>();
+        if (depth == 0 || root.isLastMoveWinning()) {
+            workers.add(() -> perft(replay(root, -1), depth));
+        } else {
+            for (int column = 0; column < BitBoard.COLUMNS; column++) {
+                if (!root.canPlay(column)) continue;
+                int move = column;
+                workers.add(() -> perft(replay(root, move), depth - 1));
+            }
+        }
+
+        long nodes = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<Long> result : pool.invokeAll(workers)) {
+                nodes += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        nodeCount = nodes;
+        return nodes;
+    }
+
+    /**
+     * @return positions counted by the last call to count
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodeCount * 1e9 / elapsedNanos;
+    }
+
+    private Backend replay(BitBoard root, int column) {
+        Backend board = backends.get();
+        for (int move = 0; move < root.getMoves(); move++) {
+            board.play(root.getColumn(move));
+        }
+        if (column >= 0) {
+            board.play(column);
+        }
+        return board;
+    }
+
+    private static long perft(Backend board, int depth) {
+        if (depth == 0) return 1;
+        if (board.isLastMoveWinning()) return 0;
+        long nodes = 0;
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            if (!board.canPlay(column)) continue;
+            if (depth == 1) {
+                nodes++;
+                continue;
+            }
+            board.play(column);
+            nodes += perft(board, depth - 1);
+            board.undo();
+        }
+        return nodes;
+    }
+
+    /**
+     * Times every backend on the empty board and checks its counts.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : EMPTY_BOARD_COUNTS.length - 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Supplier<Backend>> backends = List.of(Connect4Perft::bitBoard, Connect4Perft::connect4,
+                Connect4Perft::connectN);
+        List<String> names = List.of("BitBoard", "Connect4", "ConnectNGame");
+        for (int i = 0; i < backends.size(); i++) {
+            Connect4Perft perft = new Connect4Perft(backends.get(i), threads);
+            long nodes = perft.count(depth);
+            String check = depth >= EMPTY_BOARD_COUNTS.length ? "unknown"
+                    : nodes == EMPTY_BOARD_COUNTS[depth] ? "ok" : "WRONG";
+            System.out.printf("%-12s depth %d: %d positions (%s), %.0f positions/s%n",
+                    names.get(i), depth, nodes, check, perft.getNodesPerSecond());
+        }
+    }
+}
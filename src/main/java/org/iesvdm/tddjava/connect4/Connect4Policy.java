@@ -0,0 +1,26 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the next move of a simulated game.
+ */
+@FunctionalInterface
+public interface Connect4Policy {
+
+    /**
+     * Plays a uniformly random column among those with room.
+     */
+    Connect4Policy RANDOM = (position, random) -> {
+        int column;
+        do {
+            column = random.nextInt(BitBoard.COLUMNS);
+        } while (!position.canPlay(column));
+        return column;
+    };
+
+    /**
+     * @return a zero based column with room left; the position is not over
+     */
+    int chooseColumn(BitBoard position, SplittableRandom random);
+}
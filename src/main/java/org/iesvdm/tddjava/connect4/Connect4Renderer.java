@@ -0,0 +1,40 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Receives what happens during a {@link Connect4} game so it can be shown.
+ * Every method does nothing by default, so a renderer only pays for the
+ * events it formats.
+ */
+public interface Connect4Renderer {
+
+    /**
+     * Renderer for headless games: no formatting and no I/O at all.
+     */
+    Connect4Renderer NULL = new Connect4Renderer() {
+    };
+
+    default void discPlaced(BitBoard board) {
+    }
+
+    /**
+     * The last disc was taken back; {@code winner} is the one restored, or
+     * null.
+     */
+    default void discRemoved(BitBoard board, Connect4.Color winner) {
+    }
+
+    default void turnChanged(Connect4.Color player) {
+    }
+
+    default void winner(Connect4.Color player) {
+    }
+
+    default void draw() {
+    }
+
+    default void columnFull(BitBoard board, int discs) {
+    }
+
+    default void columnOutOfBounds(BitBoard board) {
+    }
+}
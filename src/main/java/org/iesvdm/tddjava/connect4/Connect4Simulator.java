@@ -0,0 +1,78 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays Connect4 games in bulk without any rendering. Every thread reuses a
+ * single {@link BitBoard}, reset between games, and its own random source,
+ * so a given seed and thread count always give the same results.
+ */
+public class Connect4Simulator {
+
+    private final Connect4Policy firstPlayer;
+
+    private final Connect4Policy secondPlayer;
+
+    private final int threads;
+
+    public Connect4Simulator() {
+        this(Connect4Policy.RANDOM, Connect4Policy.RANDOM, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Connect4Simulator(Connect4Policy firstPlayer, Connect4Policy secondPlayer, int threads) {
+        this.firstPlayer = firstPlayer;
+        this.secondPlayer = secondPlayer;
+        this.threads = threads;
+    }
+
+    public SimulationStats run(long games, long seed) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<SimulationStats>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long share = games / threads + (i < games % threads ? 1 : 0);
+            SplittableRandom workerRandom = random.split();
+            workers.add(() -> play(share, workerRandom));
+        }
+
+        SimulationStats stats = new SimulationStats();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<SimulationStats> result : pool.invokeAll(workers)) {
+                stats.merge(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    private SimulationStats play(long games, SplittableRandom random) {
+        SimulationStats stats = new SimulationStats();
+        BitBoard board = new BitBoard();
+        for (long game = 0; game < games; game++) {
+            board.reset();
+            int firstMove = firstPlayer.chooseColumn(board, random);
+            board.play(firstMove);
+            while (!board.isLastMoveWinning() && !board.isFull()) {
+                Connect4Policy policy = board.getCurrentPlayer() == 0 ? firstPlayer : secondPlayer;
+                board.play(policy.chooseColumn(board, random));
+            }
+            int winner = board.isLastMoveWinning() ? 1 - board.getCurrentPlayer() : SimulationStats.DRAW;
+            stats.record(firstMove, winner, board.getMoves());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,293 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Exact Connect4 solver: negamax with alpha-beta pruning, centre-first move
+ * ordering, a transposition table and iterative deepening over null windows.
+ * <p>
+ * Scores are seen from the player to move. A positive score means that
+ * player wins, and its value is the number of discs the winner still has in
+ * hand when playing the winning one, plus one. So the faster the win, the
+ * higher the score. Zero is a draw and negative scores are losses.
+ */
+public class Connect4Solver {
+
+    private static final int COLUMNS = BitBoard.COLUMNS;
+
+    private static final int ROWS = BitBoard.ROWS;
+
+    private static final int HEIGHT = BitBoard.HEIGHT;
+
+    private static final int SIZE = BitBoard.SIZE;
+
+    public static final int MIN_SCORE = -SIZE / 2 + 3;
+
+    public static final int MAX_SCORE = (SIZE + 1) / 2 - 3;
+
+    private static final int[] COLUMN_ORDER = centreFirstOrder();
+
+    private final TranspositionTable table;
+
+    /**
+     * Candidate moves and their ordering scores, one row per search depth so
+     * the search allocates nothing.
+     */
+    private final long[][] moves = new long[SIZE][COLUMNS];
+
+    private final int[][] moveScores = new int[SIZE][COLUMNS];
+
+    private OpeningBook openingBook;
+
+    private long nodeCount;
+
+    private long elapsedNanos;
+
+    public Connect4Solver() {
+        this(new TranspositionTable());
+    }
+
+    public Connect4Solver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Positions found in the book are answered from it without searching.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * @return the exact score of the position for the player to move
+     */
+    public int solve(BitBoard position) {
+        long start = System.nanoTime();
+        nodeCount = 0;
+        int score;
+        if (position.isLastMoveWinning()) {
+            score = -(SIZE + 2 - position.getMoves()) / 2;
+        } else {
+            score = bookScore(position.getCanonicalKey());
+            if (score == OpeningBook.NOT_FOUND) {
+                score = solve(current(position), mask(position), position.getMoves());
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return score;
+    }
+
+    /**
+     * @return the column (zero based) of a move with the best score, the most
+     * central one on ties, or -1 when the game is already over
+     */
+    public int bestMove(BitBoard position) {
+        long start = System.nanoTime();
+        nodeCount = 0;
+        int best = -1;
+        if (!position.isLastMoveWinning() && !position.isFull()) {
+            long current = current(position);
+            long mask = mask(position);
+            int player = position.getCurrentPlayer();
+            int bestScore = Integer.MIN_VALUE;
+            for (int column : COLUMN_ORDER) {
+                if (!canPlay(mask, column)) continue;
+                if (isWinningMove(current, mask, column)) {
+                    best = column;
+                    break;
+                }
+                long move = (mask + bottomMask(column)) & BitBoard.columnMask(column);
+                int score = bookScore(Math.min(position.getHash() ^ BitBoard.zobrist(player, move),
+                        position.getMirrorHash() ^ BitBoard.mirrorZobrist(player, move)));
+                if (score == OpeningBook.NOT_FOUND) {
+                    score = solve(current ^ mask, mask | move, position.getMoves() + 1);
+                }
+                score = -score;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = column;
+                }
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return best;
+    }
+
+    /**
+     * @return nodes visited by the last call to solve or bestMove
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodeCount * 1e9 / elapsedNanos;
+    }
+
+    public void reset() {
+        table.clear();
+    }
+
+    private int bookScore(long key) {
+        return openingBook == null ? OpeningBook.NOT_FOUND : openingBook.getScore(key);
+    }
+
+    /**
+     * @return the first column, in centre-first order, where the player to
+     * move wins straight away, or -1
+     */
+    static int winningColumn(BitBoard position) {
+        long wins = position.winningMoves(position.getCurrentPlayer());
+        for (int column : COLUMN_ORDER) {
+            if ((wins & BitBoard.columnMask(column)) != 0) return column;
+        }
+        return -1;
+    }
+
+    static int[] columnOrder() {
+        return COLUMN_ORDER.clone();
+    }
+
+    /**
+     * Exact score, for the player to move, of playing the column. The move
+     * must not win straight away. Adds to the node count without resetting it.
+     */
+    int solveMove(BitBoard position, int column) {
+        long mask = mask(position);
+        return -solve(current(position) ^ mask, mask | (mask + bottomMask(column)), position.getMoves() + 1);
+    }
+
+    /**
+     * Whether playing the column scores more than the given score, found
+     * with a single null window search. The move must not win straight away.
+     */
+    boolean isBetterThan(BitBoard position, int column, int score) {
+        long mask = mask(position);
+        long current = current(position) ^ mask;
+        long next = mask | (mask + bottomMask(column));
+        int moves = position.getMoves() + 1;
+        int childScore;
+        if (moves == SIZE) childScore = 0;
+        else if (canWinNext(current, next)) childScore = (SIZE + 1 - moves) / 2;
+        else childScore = negamax(current, next, moves, -score - 1, -score);
+        return -childScore > score;
+    }
+
+    private int solve(long current, long mask, int moves) {
+        if (moves == SIZE) return 0;
+        if (canWinNext(current, mask)) return (SIZE + 1 - moves) / 2;
+        int min = -(SIZE - moves) / 2;
+        int max = (SIZE + 1 - moves) / 2;
+        // Null window searches narrowing [min, max] until the score is known
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            if (med <= 0 && min / 2 < med) med = min / 2;
+            else if (med >= 0 && max / 2 > med) med = max / 2;
+            int score = negamax(current, mask, moves, med, med + 1);
+            if (score <= med) max = score;
+            else min = score;
+        }
+        return min;
+    }
+
+    /**
+     * Requires that the player to move cannot win straight away.
+     */
+    private int negamax(long current, long mask, int moves, int alpha, int beta) {
+        nodeCount++;
+
+        long next = BitBoard.nonLosingMoves(current, mask);
+        if (next == 0) return -(SIZE - moves) / 2;
+        if (moves >= SIZE - 2) return 0;
+
+        int min = -(SIZE - 2 - moves) / 2;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) return alpha;
+        }
+
+        int max = (SIZE - 1 - moves) / 2;
+        long key = current + mask;
+        int stored = table.get(key);
+        if (stored != 0) max = stored + MIN_SCORE - 1;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) return beta;
+        }
+
+        int count = sortMoves(current, mask, next, moves);
+        long[] candidates = this.moves[moves];
+        for (int i = count - 1; i >= 0; i--) {
+            long move = candidates[i];
+            int score = -negamax(current ^ mask, mask | move, moves + 1, -beta, -alpha);
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+
+        table.put(key, alpha - MIN_SCORE + 1);
+        return alpha;
+    }
+
+    /**
+     * Sorts the candidate moves by how many winning cells they leave for the
+     * player, keeping centre-first order on ties. The best one ends last.
+     */
+    private int sortMoves(long current, long mask, long next, int depth) {
+        long[] candidates = moves[depth];
+        int[] scores = moveScores[depth];
+        int count = 0;
+        for (int i = COLUMN_ORDER.length - 1; i >= 0; i--) {
+            long move = next & BitBoard.columnMask(COLUMN_ORDER[i]);
+            if (move == 0) continue;
+            int score = Long.bitCount(BitBoard.winningCells(current | move, mask));
+            int position = count++;
+            while (position > 0 && scores[position - 1] > score) {
+                candidates[position] = candidates[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            candidates[position] = move;
+            scores[position] = score;
+        }
+        return count;
+    }
+
+    private static long current(BitBoard position) {
+        return position.getDiscs(position.getCurrentPlayer());
+    }
+
+    private static long mask(BitBoard position) {
+        return position.getDiscs(0) | position.getDiscs(1);
+    }
+
+    private static boolean canPlay(long mask, int column) {
+        return (mask & topMask(column)) == 0;
+    }
+
+    private static boolean isWinningMove(long current, long mask, int column) {
+        return (BitBoard.winningCells(current, mask) & BitBoard.possible(mask) & BitBoard.columnMask(column)) != 0;
+    }
+
+    private static boolean canWinNext(long current, long mask) {
+        return (BitBoard.winningCells(current, mask) & BitBoard.possible(mask)) != 0;
+    }
+
+    private static long topMask(int column) {
+        return 1L << (ROWS - 1 + column * HEIGHT);
+    }
+
+    private static long bottomMask(int column) {
+        return 1L << column * HEIGHT;
+    }
+
+
+    private static int[] centreFirstOrder() {
+        int[] order = new int[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            order[i] = COLUMNS / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,31 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Storage of the discs of a {@link ConnectNGame}. Discs are always added to
+ * and removed from the top of a column.
+ */
+public interface ConnectNBoard {
+
+    int EMPTY = BitBoard.EMPTY;
+
+    int getColumns();
+
+    int getRows();
+
+    int getHeight(int column);
+
+    /**
+     * @return 0 or 1 for the owner of the cell, or {@link #EMPTY}
+     */
+    int getPlayerAt(int column, int row);
+
+    /**
+     * Adds a disc of the player on top of the column.
+     */
+    void push(int column, int player);
+
+    /**
+     * Removes the disc on top of the column.
+     */
+    void pop(int column);
+}
@@ -0,0 +1,162 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Connect4 with any number of columns, rows and discs in a row to win.
+ * <p>
+ * Boards up to {@link #DENSE_LIMIT} cells use a {@link BitArrayBoard};
+ * bigger ones use a {@link SparseBoard}. Either way, a move only checks the
+ * four lines through the disc just played, looking at most
+ * {@code discsToWin - 1} cells each way.
+ */
+public class ConnectNGame {
+
+    public static final long DENSE_LIMIT = 1L << 24;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private static final int INITIAL_HISTORY = 64;
+
+    private final ConnectNBoard board;
+
+    private final int discsToWin;
+
+    private int[] history = new int[INITIAL_HISTORY];
+
+    private int moves;
+
+    private boolean lastMoveWinning;
+
+    public ConnectNGame(int columns, int rows, int discsToWin) {
+        this(createBoard(columns, rows), discsToWin);
+    }
+
+    public ConnectNGame(ConnectNBoard board, int discsToWin) {
+        if (discsToWin < 1) {
+            throw new RuntimeException(String.format("Invalid number of discs to win %d", discsToWin));
+        }
+        this.board = board;
+        this.discsToWin = discsToWin;
+    }
+
+    /**
+     * @return the standard 7x6 board where four in a row wins
+     */
+    public static ConnectNGame connect4() {
+        return new ConnectNGame(Connect4.COLUMNS, Connect4.ROWS, Connect4.DISCS_FOR_WIN);
+    }
+
+    public static ConnectNBoard createBoard(int columns, int rows) {
+        if (columns < 1 || rows < 1) {
+            throw new RuntimeException(String.format("Invalid board size %dx%d", columns, rows));
+        }
+        if ((long) columns * rows <= DENSE_LIMIT) {
+            return new BitArrayBoard(columns, rows);
+        }
+        return new SparseBoard(columns, rows);
+    }
+
+    public boolean canPlay(int column) {
+        return column >= 0 && column < board.getColumns() && board.getHeight(column) < board.getRows();
+    }
+
+    /**
+     * Drops a disc of the player to move into the zero based column.
+     *
+     * @return the row where the disc landed
+     */
+    public int play(int column) {
+        if (column < 0 || column >= board.getColumns())
+            throw new RuntimeException(String.format("Invalid column %d", column));
+        int row = board.getHeight(column);
+        if (row == board.getRows())
+            throw new RuntimeException(String.format("No more room in column %d", column));
+        int player = getCurrentPlayer();
+        board.push(column, player);
+        if (moves == history.length) {
+            int[] grown = new int[2 * moves];
+            System.arraycopy(history, 0, grown, 0, moves);
+            history = grown;
+        }
+        history[moves++] = column;
+        lastMoveWinning = isWinningDisc(column, row, player);
+        return row;
+    }
+
+    /**
+     * Takes back the last disc played.
+     *
+     * @return its column
+     */
+    public int undo() {
+        if (moves == 0) {
+            throw new RuntimeException("There are no discs to take back");
+        }
+        int column = history[--moves];
+        board.pop(column);
+        lastMoveWinning = false;
+        if (moves > 0) {
+            int previous = history[moves - 1];
+            int row = board.getHeight(previous) - 1;
+            lastMoveWinning = isWinningDisc(previous, row, board.getPlayerAt(previous, row));
+        }
+        return column;
+    }
+
+    public boolean isLastMoveWinning() {
+        return lastMoveWinning;
+    }
+
+    public boolean isFull() {
+        return moves == (long) board.getColumns() * board.getRows();
+    }
+
+    public int getCurrentPlayer() {
+        return moves & 1;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getColumns() {
+        return board.getColumns();
+    }
+
+    public int getRows() {
+        return board.getRows();
+    }
+
+    public int getDiscsToWin() {
+        return discsToWin;
+    }
+
+    public int getHeight(int column) {
+        return board.getHeight(column);
+    }
+
+    public int getPlayerAt(int column, int row) {
+        return board.getPlayerAt(column, row);
+    }
+
+    private boolean isWinningDisc(int column, int row, int player) {
+        for (int[] direction : DIRECTIONS) {
+            int count = 1 + count(column, row, direction[0], direction[1], player)
+                    + count(column, row, -direction[0], -direction[1], player);
+            if (count >= discsToWin) return true;
+        }
+        return false;
+    }
+
+    private int count(int column, int row, int dColumn, int dRow, int player) {
+        int count = 0;
+        int c = column + dColumn;
+        int r = row + dRow;
+        while (count < discsToWin - 1 && c >= 0 && c < board.getColumns() && r >= 0 && r < board.getRows()
+                && board.getPlayerAt(c, r) == player) {
+            count++;
+            c += dColumn;
+            r += dRow;
+        }
+        return count;
+    }
+}
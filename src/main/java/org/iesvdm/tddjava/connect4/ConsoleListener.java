@@ -0,0 +1,73 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.Flushable;
+import java.io.PrintStream;
+
+/**
+ * Prints the board after every move of a {@link Connect4TDD} game and,
+ * unless told otherwise, whose turn it is whenever that is asked.
+ */
+public class ConsoleListener implements GameListener, Flushable {
+
+    private static final int ROWS = Connect4.ROWS;
+
+    private static final int COLUMNS = Connect4.COLUMNS;
+
+    private static final byte EMPTY = ' ';
+
+    private static final byte DELIMITER = '|';
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    private static final int LINE_LENGTH = 2 * COLUMNS + 1 + LINE_SEPARATOR.length;
+
+    /**
+     * Text of the board as printed, updated in place on every move so
+     * printing it needs neither formatting nor allocation.
+     */
+    private final byte[] boardText = new byte[ROWS * LINE_LENGTH];
+
+    private final PrintStream out;
+
+    private final boolean announceTurns;
+
+    public ConsoleListener(PrintStream out) {
+        this(out, true);
+    }
+
+    /**
+     * @param announceTurns whether to print {@code Player R turn} every time
+     *                      the current player is asked
+     */
+    public ConsoleListener(PrintStream out, boolean announceTurns) {
+        this.out = out;
+        this.announceTurns = announceTurns;
+        for (int line = 0; line < ROWS; line++) {
+            int offset = line * LINE_LENGTH;
+            for (int column = 0; column < COLUMNS; column++) {
+                boardText[offset + 2 * column] = DELIMITER;
+                boardText[offset + 2 * column + 1] = EMPTY;
+            }
+            boardText[offset + 2 * COLUMNS] = DELIMITER;
+            System.arraycopy(LINE_SEPARATOR, 0, boardText, offset + 2 * COLUMNS + 1, LINE_SEPARATOR.length);
+        }
+    }
+
+    @Override
+    public void onMove(String player, int column, int row) {
+        boardText[(ROWS - 1 - row) * LINE_LENGTH + 2 * column + 1] = (byte) player.charAt(0);
+        out.write(boardText, 0, boardText.length);
+    }
+
+    @Override
+    public void onTurnQueried(String player) {
+        if (announceTurns) {
+            out.printf("Player %s turn%n", player);
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
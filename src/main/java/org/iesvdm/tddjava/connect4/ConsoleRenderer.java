@@ -0,0 +1,52 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.PrintStream;
+
+/**
+ * Prints every event as soon as it happens. This is the default behaviour
+ * of {@link Connect4}.
+ */
+public class ConsoleRenderer extends BufferedTextRenderer {
+
+    private final PrintStream out;
+
+    public ConsoleRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void discPlaced(BitBoard board) {
+        super.discPlaced(board);
+        flushTo(out);
+    }
+
+    @Override
+    public void turnChanged(Connect4.Color player) {
+        super.turnChanged(player);
+        flushTo(out);
+    }
+
+    @Override
+    public void winner(Connect4.Color player) {
+        super.winner(player);
+        flushTo(out);
+    }
+
+    @Override
+    public void draw() {
+        super.draw();
+        flushTo(out);
+    }
+
+    @Override
+    public void columnFull(BitBoard board, int discs) {
+        super.columnFull(board, discs);
+        flushTo(out);
+    }
+
+    @Override
+    public void columnOutOfBounds(BitBoard board) {
+        super.columnOutOfBounds(board);
+        flushTo(out);
+    }
+}
@@ -0,0 +1,34 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Receives what happens during a {@link Connect4TDD} game. Players are
+ * given as {@code "R"} or {@code "G"}, and columns and rows count from 0.
+ * Every method does nothing by default.
+ */
+public interface GameListener {
+
+    /**
+     * Listener for headless games.
+     */
+    GameListener NONE = new GameListener() {
+    };
+
+    default void onMove(String player, int column, int row) {
+    }
+
+    default void onWin(String player) {
+    }
+
+    default void onDraw() {
+    }
+
+    default void onTurnChange(String player) {
+    }
+
+    /**
+     * Someone asked whose turn it is, e.g. so a console can tell the
+     * player.
+     */
+    default void onTurnQueried(String player) {
+    }
+}
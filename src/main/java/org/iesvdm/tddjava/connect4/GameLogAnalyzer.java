@@ -0,0 +1,279 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays logs of Connect4 games, one game per line written as the one based
+ * columns of its moves (e.g. {@code 4453}), and gathers their
+ * {@link SimulationStats}.
+ * <p>
+ * The log is cut into chunks at line boundaries and the chunks are replayed
+ * in parallel, each thread on a single reused {@link BitBoard}. Only a
+ * bounded number of chunks is in memory at any time, so the size of the log
+ * does not matter.
+ * <p>
+ * The counts of invalid and unfinished games are shared by all the analyses
+ * of an instance, so one instance must not analyze two logs at once; use an
+ * analyzer per thread instead.
+ */
+public class GameLogAnalyzer {
+
+    public static final int CHUNK_SIZE = 1 << 22;
+
+    /**
+     * More than the longest valid line, so a chunk always sees the whole of
+     * its last valid line.
+     */
+    private static final int MAX_LINE = 2 * BitBoard.SIZE;
+
+    private final int threads;
+
+    private final int chunkSize;
+
+    private final LongAdder invalidGames = new LongAdder();
+
+    private final LongAdder unfinishedGames = new LongAdder();
+
+    public GameLogAnalyzer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameLogAnalyzer(int threads) {
+        this(threads, CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize bytes of log replayed by each task; it must be longer
+     *                  than any valid line
+     */
+    GameLogAnalyzer(int threads, int chunkSize) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Analyzes a log file, mapping it into memory chunk by chunk. It must
+     * not run at the same time as another analysis of this instance.
+     */
+    public SimulationStats analyze(Path file) throws IOException {
+        long start = System.nanoTime();
+        invalidGames.reset();
+        unfinishedGames.reset();
+        SimulationStats stats;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            stats = pool.invoke(new FileChunk(channel, 0, channel.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    /**
+     * Analyzes a log read from a stream, e.g. one being decompressed. The
+     * stream is not closed. It must not run at the same time as another
+     * analysis of this instance.
+     */
+    public SimulationStats analyze(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        invalidGames.reset();
+        unfinishedGames.reset();
+        SimulationStats stats = new SimulationStats();
+        Deque<ForkJoinTask<SimulationStats>> pending = new ArrayDeque<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            byte[] chunk = new byte[chunkSize];
+            int length = 0;
+            int read;
+            while ((read = in.read(chunk, length, chunk.length - length)) >= 0) {
+                length += read;
+                if (length < chunk.length) continue;
+                int end = lastLineEnd(chunk, length);
+                if (end == 0) {
+                    // A line longer than a whole chunk can only be invalid
+                    invalidGames.increment();
+                    length = skipLine(in, chunk);
+                    continue;
+                }
+                byte[] next = new byte[chunkSize];
+                length -= end;
+                System.arraycopy(chunk, end, next, 0, length);
+                pending.add(pool.submit(replayTask(chunk, end)));
+                // Wait for the oldest chunk before reading too far ahead
+                if (pending.size() > 2 * threads) {
+                    stats.merge(pending.remove().get());
+                }
+                chunk = next;
+            }
+            pending.add(pool.submit(replayTask(chunk, length)));
+            while (!pending.isEmpty()) {
+                stats.merge(pending.remove().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    /**
+     * @return lines of the last log analyzed with an illegal move, a move
+     * after the game was won, or anything but column digits
+     */
+    public long getInvalidGames() {
+        return invalidGames.sum();
+    }
+
+    /**
+     * @return games of the last log analyzed that stopped before a win or a
+     * full board; they are not part of the stats
+     */
+    public long getUnfinishedGames() {
+        return unfinishedGames.sum();
+    }
+
+    private RecursiveTask<SimulationStats> replayTask(byte[] chunk, int length) {
+        return new RecursiveTask<>() {
+            @Override
+            protected SimulationStats compute() {
+                SimulationStats stats = new SimulationStats();
+                replayLines(ByteBuffer.wrap(chunk, 0, length), 0, length, new BitBoard(), stats);
+                return stats;
+            }
+        };
+    }
+
+    /**
+     * Replays every line starting at or after {@code from} and before
+     * {@code to}. The last one may go on past {@code to}, up to the limit of
+     * the data.
+     */
+    private void replayLines(ByteBuffer data, int from, int to, BitBoard board, SimulationStats stats) {
+        int position = from;
+        int limit = data.limit();
+        while (position < to) {
+            board.reset();
+            boolean valid = true;
+            while (position < limit) {
+                byte b = data.get(position++);
+                if (b == '\n') break;
+                if (b == '\r' || !valid) continue;
+                int column = b - '1';
+                valid = column >= 0 && column < BitBoard.COLUMNS && board.canPlay(column)
+                        && !board.isLastMoveWinning();
+                if (valid) board.play(column);
+            }
+            if (!valid) {
+                invalidGames.increment();
+            } else if (board.isLastMoveWinning()) {
+                stats.record(board.getColumn(0), 1 - board.getCurrentPlayer(), board.getMoves());
+            } else if (board.isFull()) {
+                stats.record(board.getColumn(0), SimulationStats.DRAW, board.getMoves());
+            } else if (board.getMoves() > 0) {
+                unfinishedGames.increment();
+            }
+        }
+    }
+
+    /**
+     * Reads on up to the end of the current line, leaving what follows it at
+     * the start of the chunk.
+     *
+     * @return the number of bytes left in the chunk
+     */
+    private static int skipLine(InputStream in, byte[] chunk) throws IOException {
+        int read;
+        while ((read = in.read(chunk)) >= 0) {
+            for (int i = 0; i < read; i++) {
+                if (chunk[i] == '\n') {
+                    System.arraycopy(chunk, i + 1, chunk, 0, read - i - 1);
+                    return read - i - 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int lastLineEnd(byte[] chunk, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (chunk[i] == '\n') return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * The lines starting in a range of the file, split in halves until a
+     * range fits in a chunk.
+     */
+    private class FileChunk extends RecursiveTask<SimulationStats> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+
+        private final long from;
+
+        private final long to;
+
+        private FileChunk(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from > chunkSize) {
+                long middle = from + (to - from) / 2;
+                FileChunk second = new FileChunk(channel, middle, to);
+                second.fork();
+                SimulationStats stats = new FileChunk(channel, from, middle).compute();
+                stats.merge(second.join());
+                return stats;
+            }
+            SimulationStats stats = new SimulationStats();
+            try {
+                long start = Math.max(0, from - 1);
+                long end = Math.min(channel.size(), to + MAX_LINE);
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                // The line that started in the previous range belongs to it
+                int first = from == 0 ? 0 : lineStart(data, to - start);
+                replayLines(data, first, (int) (to - start), new BitBoard(), stats);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return stats;
+        }
+
+        private int lineStart(ByteBuffer data, long to) {
+            int position = 0;
+            while (position < to && data.get(position) != '\n') {
+                position++;
+            }
+            return position + 1;
+        }
+    }
+}
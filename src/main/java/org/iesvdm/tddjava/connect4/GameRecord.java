@@ -0,0 +1,119 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Compact record of a Connect4 game: a header {@code long} with the number of
+ * moves and the result, followed by the moves packed 3 bits each, 21 per
+ * {@code long}. A full game takes 24 bytes.
+ * <p>
+ * Records are mutable so readers can decode into the same instance again and
+ * again without allocating.
+ */
+public class GameRecord {
+
+    public enum Result {
+        UNFINISHED, FIRST_PLAYER_WINS, SECOND_PLAYER_WINS, DRAW
+    }
+
+    static final long MAGIC = 0xC4C4L;
+
+    static final int MOVES_PER_WORD = 21;
+
+    static final int MAX_WORDS = (BitBoard.SIZE + MOVES_PER_WORD - 1) / MOVES_PER_WORD;
+
+    private static final int BITS_PER_MOVE = 3;
+
+    private static final long MOVE_MASK = (1L << BITS_PER_MOVE) - 1;
+
+    private static final Result[] RESULTS = Result.values();
+
+    private final long[] words = new long[MAX_WORDS];
+
+    private int moveCount;
+
+    private Result result = Result.UNFINISHED;
+
+    /**
+     * @return a record of the moves played so far on the board and their result
+     */
+    public static GameRecord of(BitBoard board) {
+        GameRecord record = new GameRecord();
+        for (int move = 0; move < board.getMoves(); move++) {
+            record.addMove(board.getColumn(move));
+        }
+        record.setResult(resultOf(board));
+        return record;
+    }
+
+    public static Result resultOf(BitBoard board) {
+        if (board.isLastMoveWinning()) {
+            return board.getCurrentPlayer() == 1 ? Result.FIRST_PLAYER_WINS : Result.SECOND_PLAYER_WINS;
+        }
+        return board.isFull() ? Result.DRAW : Result.UNFINISHED;
+    }
+
+    public void clear() {
+        for (int i = 0; i < MAX_WORDS; i++) {
+            words[i] = 0;
+        }
+        moveCount = 0;
+        result = Result.UNFINISHED;
+    }
+
+    public void addMove(int column) {
+        if (moveCount == BitBoard.SIZE) {
+            throw new RuntimeException(String.format("A game has no more than %d moves", BitBoard.SIZE));
+        }
+        if (column < 0 || column >= BitBoard.COLUMNS) {
+            throw new RuntimeException(String.format("Invalid column %d", column));
+        }
+        words[moveCount / MOVES_PER_WORD] |= (long) column << (moveCount % MOVES_PER_WORD * BITS_PER_MOVE);
+        moveCount++;
+    }
+
+    public int getMove(int move) {
+        return (int) (words[move / MOVES_PER_WORD] >>> (move % MOVES_PER_WORD * BITS_PER_MOVE) & MOVE_MASK);
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    public void setResult(Result result) {
+        this.result = result;
+    }
+
+    int getWordCount() {
+        return (moveCount + MOVES_PER_WORD - 1) / MOVES_PER_WORD;
+    }
+
+    long getWord(int word) {
+        return words[word];
+    }
+
+    long getHeader() {
+        return MAGIC << 48 | (long) result.ordinal() << 8 | moveCount;
+    }
+
+    /**
+     * Loads a header read from a stream; the move words follow with
+     * {@link #setWord(int, long)}.
+     *
+     * @return false when the header is not a valid record header
+     */
+    boolean setHeader(long header) {
+        int count = (int) (header & 0xFF);
+        if (header >>> 48 != MAGIC || count > BitBoard.SIZE) return false;
+        clear();
+        moveCount = count;
+        result = RESULTS[(int) (header >>> 8 & 0x3)];
+        return true;
+    }
+
+    void setWord(int word, long value) {
+        words[word] = value;
+    }
+}
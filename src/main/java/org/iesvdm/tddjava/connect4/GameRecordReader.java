@@ -0,0 +1,60 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads back the {@link GameRecord}s written by a {@link GameRecordWriter},
+ * decoding each one into a record supplied by the caller.
+ */
+public class GameRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    public GameRecordReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * @return false when there are no more records
+     */
+    public boolean next(GameRecord record) throws IOException {
+        if (!fill(Long.BYTES)) {
+            if (buffer.hasRemaining()) throw new IOException("Truncated game record");
+            return false;
+        }
+        if (!record.setHeader(buffer.getLong())) {
+            throw new IOException("Corrupt game record header");
+        }
+        int words = record.getWordCount();
+        if (!fill(words * Long.BYTES)) {
+            throw new IOException("Truncated game record");
+        }
+        for (int word = 0; word < words; word++) {
+            record.setWord(word, buffer.getLong());
+        }
+        return true;
+    }
+
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return true;
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,47 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Appends {@link GameRecord}s to a channel through a direct buffer.
+ */
+public class GameRecordWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    public GameRecordWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    public void write(GameRecord record) throws IOException {
+        int words = record.getWordCount();
+        if (buffer.remaining() < (words + 1) * Long.BYTES) {
+            flush();
+        }
+        buffer.putLong(record.getHeader());
+        for (int word = 0; word < words; word++) {
+            buffer.putLong(record.getWord(word));
+        }
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,172 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Hosts many concurrent {@link Connect4TDD} games in one JVM.
+ * <p>
+ * Every session is a small actor: requests go into its mailbox and are run
+ * one at a time on a virtual thread, so the moves of a game never overlap
+ * and no lock is shared between games. Sessions left idle for longer than
+ * the timeout are evicted.
+ */
+public final class GameServer implements AutoCloseable {
+
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor();
+
+    private final long idleTimeoutNanos;
+
+    private final LongSupplier clock;
+
+    public GameServer(long idleTimeout, TimeUnit unit) {
+        this(idleTimeout, unit, System::nanoTime);
+        long period = Math.max(1, idleTimeoutNanos / 2);
+        evictor.scheduleAtFixedRate(this::evictIdleSessions, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sessions are only evicted by calling {@link #evictIdleSessions()}, as
+     * the clock may have nothing to do with real time.
+     *
+     * @param clock current time in nanoseconds, like {@link System#nanoTime()}
+     */
+    GameServer(long idleTimeout, TimeUnit unit, LongSupplier clock) {
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.clock = clock;
+    }
+
+    /**
+     * @return the id of a new game
+     */
+    public long createSession() {
+        long id = nextId.incrementAndGet();
+        sessions.put(id, new Session());
+        return id;
+    }
+
+    /**
+     * @return the row where the disc landed, or an exception if the move is
+     * not valid
+     */
+    public CompletableFuture<Integer> putDisc(long sessionId, int column) {
+        return submit(sessionId, game -> game.putDiscInColumn(column));
+    }
+
+    public CompletableFuture<String> getWinner(long sessionId) {
+        return submit(sessionId, Connect4TDD::getWinner);
+    }
+
+    /**
+     * Runs the action on the game after every request already queued for it.
+     */
+    public <T> CompletableFuture<T> submit(long sessionId, Function<Connect4TDD, T> action) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new RuntimeException(String.format("Unknown session %d", sessionId)));
+        }
+        return session.submit(action);
+    }
+
+    public void closeSession(long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return the number of sessions evicted
+     */
+    public int evictIdleSessions() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<Long, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.isIdleSince(now - idleTimeoutNanos) && sessions.remove(entry.getKey(), session)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        executor.close();
+    }
+
+    private class Session {
+
+        private final Connect4TDD game = new Connect4TDD(GameListener.NONE);
+
+        private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile long lastAccess = clock.getAsLong();
+
+        private <T> CompletableFuture<T> submit(Function<Connect4TDD, T> action) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            lastAccess = clock.getAsLong();
+            mailbox.add(() -> {
+                // lastAccess is stamped before the future completes, so a caller that
+                // has joined the answer never sees the session idle from before it ran
+                try {
+                    T value = action.apply(game);
+                    lastAccess = clock.getAsLong();
+                    result.complete(value);
+                } catch (RuntimeException e) {
+                    lastAccess = clock.getAsLong();
+                    result.completeExceptionally(e);
+                } catch (Error e) {
+                    lastAccess = clock.getAsLong();
+                    result.completeExceptionally(e);
+                    throw e;
+                }
+            });
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+            return result;
+        }
+
+        private void drain() {
+            try {
+                Runnable request;
+                while ((request = mailbox.poll()) != null) {
+                    request.run();
+                }
+            } finally {
+                // Even after an Error, or the session would never run nor be evicted again
+                scheduled.set(false);
+                // A request may have arrived after the last poll but before the flag was cleared
+                if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private boolean isIdleSince(long time) {
+            return lastAccess < time && mailbox.isEmpty() && !scheduled.get();
+        }
+    }
+}
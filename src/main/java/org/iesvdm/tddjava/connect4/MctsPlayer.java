@@ -0,0 +1,259 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Anytime Monte Carlo Tree Search player. It searches for as long as its
+ * time budget allows, selecting moves with UCT, and returns the most
+ * visited move.
+ * <p>
+ * All threads grow the same tree. A thread counts its visit on every node
+ * as it goes down, before the playout result is known, so other threads see
+ * a "virtual loss" there and spread out to other moves. Playouts run on
+ * {@link BitBoard}s. The subtree of the position reached is kept between
+ * moves of the same game.
+ */
+public class MctsPlayer implements AutoCloseable {
+
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    private static final int WIN = 2;
+
+    private static final int DRAW = 1;
+
+    private final long budgetNanos;
+
+    private final int threads;
+
+    private final double exploration;
+
+    private final ExecutorService pool;
+
+    private final AtomicLong playouts = new AtomicLong();
+
+    private final SplittableRandom seeds = new SplittableRandom();
+
+    private Node root;
+
+    private BitBoard rootPosition;
+
+    private long elapsedNanos;
+
+    public MctsPlayer(long budgetMillis, int threads) {
+        this(budgetMillis, threads, DEFAULT_EXPLORATION);
+    }
+
+    public MctsPlayer(long budgetMillis, int threads, double exploration) {
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.threads = threads;
+        this.exploration = exploration;
+        this.pool = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * @return the zero based column to play, or -1 when the game is over
+     */
+    public int chooseMove(BitBoard position) {
+        if (position.isLastMoveWinning() || position.isFull()) return -1;
+        long start = System.nanoTime();
+        reuseTree(position);
+        playouts.set(0);
+
+        long deadline = start + budgetNanos;
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = seeds.split();
+            workers.add(() -> {
+                search(deadline, random);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> worker : pool.invokeAll(workers)) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) best = child;
+        }
+        return best.column;
+    }
+
+    /**
+     * @return playouts run by the last call to chooseMove
+     */
+    public long getPlayouts() {
+        return playouts.get();
+    }
+
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts.get() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return times the root has been visited, including the reused tree
+     */
+    public int getRootVisits() {
+        return root == null ? 0 : root.visits;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Keeps the subtree of the new position when it follows from the
+     * previous root, otherwise starts a new tree.
+     */
+    private void reuseTree(BitBoard position) {
+        Node node = root;
+        if (node != null && isContinuation(position)) {
+            for (int move = rootPosition.getMoves(); node != null && move < position.getMoves(); move++) {
+                node = node.child(position.getColumn(move));
+            }
+        } else {
+            node = null;
+        }
+        root = node != null ? node : new Node(-1);
+        rootPosition = position.copy();
+        root.expand(rootPosition);
+    }
+
+    private boolean isContinuation(BitBoard position) {
+        if (position.getMoves() < rootPosition.getMoves()) return false;
+        for (int move = 0; move < rootPosition.getMoves(); move++) {
+            if (position.getColumn(move) != rootPosition.getColumn(move)) return false;
+        }
+        return true;
+    }
+
+    private void search(long deadline, SplittableRandom random) {
+        BitBoard board = new BitBoard();
+        Node[] path = new Node[BitBoard.SIZE + 1];
+        int rootMoves = rootPosition.getMoves();
+        while (System.nanoTime() < deadline) {
+            board.copyFrom(rootPosition);
+            Node node = root;
+            int depth = 0;
+            path[depth++] = node;
+            node.addVisit();
+            while (node.children != null && !board.isLastMoveWinning() && !board.isFull()) {
+                node = node.select(exploration);
+                board.play(node.column);
+                path[depth++] = node;
+                node.addVisit();
+            }
+            if (!board.isLastMoveWinning() && !board.isFull()) {
+                node.expand(board);
+            }
+            int winner = playout(board, random);
+            for (int i = 1; i < depth; i++) {
+                // The node at depth i was reached by a move of this player
+                int mover = (rootMoves + i - 1) & 1;
+                path[i].addScore(winner == BitBoard.EMPTY ? DRAW : winner == mover ? WIN : 0);
+            }
+            playouts.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the winner of a random game from the board, or
+     * {@link BitBoard#EMPTY} for a draw
+     */
+    private static int playout(BitBoard board, SplittableRandom random) {
+        while (!board.isLastMoveWinning() && !board.isFull()) {
+            int column;
+            do {
+                column = random.nextInt(BitBoard.COLUMNS);
+            } while (!board.canPlay(column));
+            board.play(column);
+        }
+        return board.isLastMoveWinning() ? 1 - board.getCurrentPlayer() : BitBoard.EMPTY;
+    }
+
+    private static class Node {
+
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+
+        private static final AtomicLongFieldUpdater<Node> SCORE =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "score");
+
+        private final int column;
+
+        private volatile Node[] children;
+
+        private volatile int visits;
+
+        /**
+         * Sum of the results for the player who moved into this node, in
+         * half points: 2 per win and 1 per draw.
+         */
+        private volatile long score;
+
+        private Node(int column) {
+            this.column = column;
+        }
+
+        private void addVisit() {
+            VISITS.incrementAndGet(this);
+        }
+
+        private void addScore(int points) {
+            SCORE.addAndGet(this, points);
+        }
+
+        private synchronized void expand(BitBoard board) {
+            if (children != null || board.isLastMoveWinning() || board.isFull()) return;
+            List<Node> nodes = new ArrayList<>();
+            for (int column = 0; column < BitBoard.COLUMNS; column++) {
+                if (board.canPlay(column)) nodes.add(new Node(column));
+            }
+            children = nodes.toArray(new Node[0]);
+        }
+
+        private Node child(int column) {
+            Node[] nodes = children;
+            if (nodes == null) return null;
+            for (Node node : nodes) {
+                if (node.column == column) return node;
+            }
+            return null;
+        }
+
+        private Node select(double exploration) {
+            double logVisits = Math.log(Math.max(visits, 1));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int childVisits = child.visits;
+                if (childVisits == 0) return child;
+                double value = child.score / (2.0 * childVisits) + exploration * Math.sqrt(logVisits / childVisits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book, memory-mapped from the file written by
+ * {@link OpeningBookGenerator}. Nothing is loaded onto the heap: lookups
+ * binary search the mapped entries directly.
+ * <p>
+ * File layout, big endian: a header with {@link #MAGIC} and the number of
+ * entries, followed by the entries sorted by key, each one the 8 byte
+ * {@linkplain BitBoard#getCanonicalKey() canonical key} of a position and
+ * the 1 byte score of the position.
+ */
+public class OpeningBook {
+
+    public static final int MAGIC = 0x43344f32;
+
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    static final int ENTRY_SIZE = Long.BYTES + 1;
+
+    private final MappedByteBuffer entries;
+
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(String.format("%s is not an opening book", file));
+            }
+            long size = buffer.getLong(Integer.BYTES);
+            if (channel.size() != HEADER_SIZE + size * ENTRY_SIZE) {
+                throw new IOException(String.format("Opening book %s is truncated", file));
+            }
+            return new OpeningBook(buffer, (int) size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the score of the position for the player to move, or
+     * {@link #NOT_FOUND}
+     */
+    public int getScore(BitBoard position) {
+        return getScore(position.getCanonicalKey());
+    }
+
+    public int getScore(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long offset = HEADER_SIZE + (long) middle * ENTRY_SIZE;
+            long middleKey = entries.getLong((int) offset);
+            if (middleKey < key) low = middle + 1;
+            else if (middleKey > key) high = middle - 1;
+            else return entries.get((int) offset + Long.BYTES);
+        }
+        return NOT_FOUND;
+    }
+}
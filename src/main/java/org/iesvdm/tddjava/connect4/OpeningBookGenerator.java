@@ -0,0 +1,92 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Solves every position reachable from a root in up to a given number of
+ * moves and writes the results as an {@link OpeningBook} file.
+ */
+public class OpeningBookGenerator {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final Connect4Solver solver;
+
+    private final Map<Long, Integer> scores = new HashMap<>();
+
+    public OpeningBookGenerator() {
+        this(new Connect4Solver());
+    }
+
+    public OpeningBookGenerator(Connect4Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Writes the book for all the positions from the empty board up to the
+     * given number of discs.
+     */
+    public int generate(int depth, Path file) throws IOException {
+        return generate(new BitBoard(), depth, file);
+    }
+
+    /**
+     * @return the number of positions written
+     */
+    public int generate(BitBoard root, int depth, Path file) throws IOException {
+        scores.clear();
+        collect(root, depth);
+        long[] keys = new long[scores.size()];
+        int i = 0;
+        for (long key : scores.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        write(keys, file);
+        return keys.length;
+    }
+
+    private void collect(BitBoard position, int depth) {
+        if (position.isLastMoveWinning() || position.isFull()) return;
+        long key = position.getCanonicalKey();
+        if (scores.containsKey(key)) return;
+        scores.put(key, solver.solve(position));
+        if (depth == 0) return;
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            if (!position.canPlay(column)) continue;
+            BitBoard child = position.copy();
+            child.play(column);
+            collect(child, depth - 1);
+        }
+    }
+
+    private void write(long[] keys, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(OpeningBook.MAGIC).putLong(keys.length);
+            for (long key : keys) {
+                if (buffer.remaining() < OpeningBook.ENTRY_SIZE) {
+                    drain(buffer, channel);
+                }
+                buffer.putLong(key).put((byte) (int) scores.get(key));
+            }
+            drain(buffer, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,220 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded version of {@link Connect4Solver} that splits the work at
+ * the root, Young Brothers Wait style: the most promising move is solved
+ * first, then every other move is checked in parallel against its score on
+ * a {@link ForkJoinPool}. All threads share one lock-free
+ * {@link TranspositionTable}.
+ * <p>
+ * Scores and best moves are always the same as the sequential solver's.
+ */
+public class ParallelConnect4Solver implements AutoCloseable {
+
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+
+    private final ForkJoinPool pool;
+
+    private final TranspositionTable table;
+
+    private final ThreadLocal<Connect4Solver> solvers;
+
+    private final AtomicLong nodeCount = new AtomicLong();
+
+    private long elapsedNanos;
+
+    public ParallelConnect4Solver() {
+        this(Connect4.SOLVER_THREADS);
+    }
+
+    public ParallelConnect4Solver(int threads) {
+        this(threads, new TranspositionTable());
+    }
+
+    public ParallelConnect4Solver(int threads, TranspositionTable table) {
+        this.pool = new ForkJoinPool(threads);
+        this.table = table;
+        this.solvers = ThreadLocal.withInitial(() -> new Connect4Solver(table));
+    }
+
+    /**
+     * @see Connect4Solver#solve(BitBoard)
+     */
+    public int solve(BitBoard position) {
+        return search(position).score;
+    }
+
+    /**
+     * @see Connect4Solver#bestMove(BitBoard)
+     */
+    public int bestMove(BitBoard position) {
+        return search(position).column;
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    public long getNodeCount() {
+        return nodeCount.get();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodeCount.get() * 1e9 / elapsedNanos;
+    }
+
+    public void reset() {
+        table.clear();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Solves the position with 1 thread and then with each thread count,
+     * every time with an empty transposition table.
+     *
+     * @return the speed-up of each thread count over a single thread
+     */
+    public static double[] measureSpeedup(BitBoard position, int... threadCounts) {
+        double[] speedup = new double[threadCounts.length];
+        long single = timeSolve(position, 1);
+        for (int i = 0; i < threadCounts.length; i++) {
+            speedup[i] = (double) single / timeSolve(position, threadCounts[i]);
+        }
+        return speedup;
+    }
+
+    private static long timeSolve(BitBoard position, int threads) {
+        try (ParallelConnect4Solver solver = new ParallelConnect4Solver(threads)) {
+            solver.solve(position);
+            return solver.getElapsedNanos();
+        }
+    }
+
+    private Result search(BitBoard position) {
+        long start = System.nanoTime();
+        nodeCount.set(0);
+        Result result;
+        if (position.isLastMoveWinning()) {
+            result = new Result(-1, -(BitBoard.SIZE + 2 - position.getMoves()) / 2);
+        } else if (position.isFull()) {
+            result = new Result(-1, 0);
+        } else {
+            int winning = Connect4Solver.winningColumn(position);
+            if (winning >= 0) {
+                result = new Result(winning, (BitBoard.SIZE + 1 - position.getMoves()) / 2);
+            } else {
+                RootTask root = new RootTask(position);
+                pool.invoke(root);
+                result = root.result;
+            }
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void addNodes(Connect4Solver solver, long nodesBefore) {
+        nodeCount.addAndGet(solver.getNodeCount() - nodesBefore);
+    }
+
+    private static class Result {
+
+        private final int column;
+
+        private final int score;
+
+        private Result(int column, int score) {
+            this.column = column;
+            this.score = score;
+        }
+    }
+
+    private class RootTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient BitBoard position;
+
+        private transient Result result;
+
+        private RootTask(BitBoard position) {
+            this.position = position;
+        }
+
+        @Override
+        protected void compute() {
+            List<Integer> columns = new ArrayList<>();
+            for (int column : Connect4Solver.columnOrder()) {
+                if (position.canPlay(column)) columns.add(column);
+            }
+
+            // The eldest brother is solved alone to get a score to beat
+            int eldest = columns.get(0);
+            Connect4Solver solver = solvers.get();
+            long nodesBefore = solver.getNodeCount();
+            int eldestScore = solver.solveMove(position, eldest);
+            addNodes(solver, nodesBefore);
+
+            List<SiblingTask> siblings = new ArrayList<>();
+            for (int column : columns.subList(1, columns.size())) {
+                siblings.add(new SiblingTask(position, column, eldestScore));
+            }
+            invokeAll(siblings);
+
+            int best = eldest;
+            int bestScore = eldestScore;
+            for (SiblingTask sibling : siblings) {
+                if (sibling.score != NO_SCORE && sibling.score > bestScore) {
+                    best = sibling.column;
+                    bestScore = sibling.score;
+                }
+            }
+            result = new Result(best, bestScore);
+        }
+    }
+
+    private class SiblingTask extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient BitBoard position;
+
+        private final int column;
+
+        private final int scoreToBeat;
+
+        private int score = NO_SCORE;
+
+        private SiblingTask(BitBoard position, int column, int scoreToBeat) {
+            this.position = position;
+            this.column = column;
+            this.scoreToBeat = scoreToBeat;
+        }
+
+        @Override
+        protected void compute() {
+            Connect4Solver solver = solvers.get();
+            long nodesBefore = solver.getNodeCount();
+            if (solver.isBetterThan(position, column, scoreToBeat)) {
+                score = solver.solveMove(position, column);
+            }
+            addNodes(solver, nodesBefore);
+        }
+    }
+}
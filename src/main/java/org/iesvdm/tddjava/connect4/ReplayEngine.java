@@ -0,0 +1,70 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+
+/**
+ * Replays {@link GameRecord}s on a reusable {@link BitBoard}, without any
+ * rendering.
+ */
+public class ReplayEngine {
+
+    private final BitBoard board = new BitBoard();
+
+    private long recordsValidated;
+
+    /**
+     * Plays the first moves of the record.
+     *
+     * @return the engine's board after those moves; it is reused by the
+     * next call
+     * @throws RuntimeException if one of those moves cannot be played
+     */
+    public BitBoard fastForward(GameRecord record, int moves) {
+        if (moves > record.getMoveCount()) {
+            throw new RuntimeException(String.format("The game only has %d moves", record.getMoveCount()));
+        }
+        board.reset();
+        for (int move = 0; move < moves; move++) {
+            int column = record.getMove(move);
+            if (column >= BitBoard.COLUMNS || !board.canPlay(column)) {
+                throw new RuntimeException(String.format("Corrupt record: move %d to column %d cannot be played",
+                        move, column));
+            }
+            board.play(column);
+        }
+        return board;
+    }
+
+    /**
+     * Whether every move is legal, no move follows a win and the recorded
+     * result is the actual one.
+     */
+    public boolean validate(GameRecord record) {
+        recordsValidated++;
+        board.reset();
+        for (int move = 0; move < record.getMoveCount(); move++) {
+            int column = record.getMove(move);
+            if (board.isLastMoveWinning() || column >= BitBoard.COLUMNS || !board.canPlay(column)) return false;
+            board.play(column);
+        }
+        return GameRecord.resultOf(board) == record.getResult();
+    }
+
+    /**
+     * Validates every record left in the reader.
+     *
+     * @return the number of invalid records
+     */
+    public long validateAll(GameRecordReader reader) throws IOException {
+        GameRecord record = new GameRecord();
+        long invalid = 0;
+        while (reader.next(record)) {
+            if (!validate(record)) invalid++;
+        }
+        return invalid;
+    }
+
+    public long getRecordsValidated() {
+        return recordsValidated;
+    }
+}
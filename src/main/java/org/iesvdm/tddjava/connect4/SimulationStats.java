@@ -0,0 +1,133 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Aggregated results of many Connect4 games: who won, grouped by the first
+ * move, and how long the games lasted.
+ */
+public class SimulationStats {
+
+    public static final int DRAW = BitBoard.EMPTY;
+
+    private final long[][] winsByFirstMove = new long[2][BitBoard.COLUMNS];
+
+    private final long[] drawsByFirstMove = new long[BitBoard.COLUMNS];
+
+    private final long[] lengthHistogram = new long[BitBoard.SIZE + 1];
+
+    private long games;
+
+    private long totalLength;
+
+    private long elapsedNanos;
+
+    /**
+     * @param winner 0 or 1 for the winning player, or {@link #DRAW}
+     * @param length number of discs played
+     */
+    public void record(int firstMove, int winner, int length) {
+        if (winner == DRAW) {
+            drawsByFirstMove[firstMove]++;
+        } else {
+            winsByFirstMove[winner][firstMove]++;
+        }
+        lengthHistogram[length]++;
+        totalLength += length;
+        games++;
+    }
+
+    public void merge(SimulationStats other) {
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            winsByFirstMove[0][column] += other.winsByFirstMove[0][column];
+            winsByFirstMove[1][column] += other.winsByFirstMove[1][column];
+            drawsByFirstMove[column] += other.drawsByFirstMove[column];
+        }
+        for (int length = 0; length < lengthHistogram.length; length++) {
+            lengthHistogram[length] += other.lengthHistogram[length];
+        }
+        games += other.games;
+        totalLength += other.totalLength;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins(int player) {
+        long wins = 0;
+        for (long count : winsByFirstMove[player]) {
+            wins += count;
+        }
+        return wins;
+    }
+
+    public long getDraws() {
+        long draws = 0;
+        for (long count : drawsByFirstMove) {
+            draws += count;
+        }
+        return draws;
+    }
+
+    public long getGames(int firstMove) {
+        return winsByFirstMove[0][firstMove] + winsByFirstMove[1][firstMove] + drawsByFirstMove[firstMove];
+    }
+
+    public long getWins(int player, int firstMove) {
+        return winsByFirstMove[player][firstMove];
+    }
+
+    public long getDraws(int firstMove) {
+        return drawsByFirstMove[firstMove];
+    }
+
+    public double getWinRate(int player) {
+        return rate(getWins(player), games);
+    }
+
+    public double getDrawRate() {
+        return rate(getDraws(), games);
+    }
+
+    public double getWinRate(int player, int firstMove) {
+        return rate(getWins(player, firstMove), getGames(firstMove));
+    }
+
+    public double getDrawRate(int firstMove) {
+        return rate(getDraws(firstMove), getGames(firstMove));
+    }
+
+    /**
+     * How much more often the first player wins than the second one, from
+     * -1 to 1.
+     */
+    public double getFirstPlayerAdvantage() {
+        return getWinRate(0) - getWinRate(1);
+    }
+
+    public double getAverageLength() {
+        return games == 0 ? 0 : (double) totalLength / games;
+    }
+
+    /**
+     * @return games indexed by their number of discs
+     */
+    public long[] getLengthHistogram() {
+        return lengthHistogram.clone();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+}
@@ -0,0 +1,48 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Keeps track of the game without formatting anything; the text is only
+ * built when {@link #render()} is called. It keeps a {@link BoardSnapshot}
+ * of the board, not the game's own, and follows discs taken back.
+ */
+public class SnapshotRenderer implements Connect4Renderer {
+
+    private BoardSnapshot board = BoardSnapshot.EMPTY;
+
+    private Connect4.Color winner;
+
+    private boolean draw;
+
+    @Override
+    public void discPlaced(BitBoard board) {
+        this.board = BoardSnapshot.of(board, winner);
+    }
+
+    @Override
+    public void discRemoved(BitBoard board, Connect4.Color winner) {
+        this.board = BoardSnapshot.of(board, winner);
+        this.winner = winner;
+        draw = false;
+    }
+
+    @Override
+    public void winner(Connect4.Color player) {
+        winner = player;
+    }
+
+    @Override
+    public void draw() {
+        draw = true;
+    }
+
+    public String render() {
+        BufferedTextRenderer text = new BufferedTextRenderer();
+        text.append(board);
+        if (winner != null) {
+            text.winner(winner);
+        } else if (draw) {
+            text.draw();
+        }
+        return text.getText();
+    }
+}
@@ -0,0 +1,102 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * {@link ConnectNBoard} for huge boards, whose memory grows with the discs
+ * played instead of with the number of cells.
+ * <p>
+ * Each column is stored as runs of discs of the same player, from the
+ * bottom up. Runs always alternate players, so a column only needs the
+ * owner of its first run and where each run ends. Empty columns take no
+ * memory at all.
+ */
+public class SparseBoard implements ConnectNBoard {
+
+    private static final int INITIAL_RUNS = 4;
+
+    private final int columns;
+
+    private final int rows;
+
+    private final Column[] columnRuns;
+
+    public SparseBoard(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.columnRuns = new Column[columns];
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getHeight(int column) {
+        Column runs = columnRuns[column];
+        return runs == null || runs.count == 0 ? 0 : runs.ends[runs.count - 1];
+    }
+
+    @Override
+    public int getPlayerAt(int column, int row) {
+        Column runs = columnRuns[column];
+        if (runs == null || runs.count == 0 || row >= runs.ends[runs.count - 1]) return EMPTY;
+        // First run ending above the row
+        int low = 0;
+        int high = runs.count - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runs.ends[middle] > row) high = middle;
+            else low = middle + 1;
+        }
+        return runs.firstPlayer ^ (low & 1);
+    }
+
+    @Override
+    public void push(int column, int player) {
+        Column runs = columnRuns[column];
+        if (runs == null) {
+            runs = columnRuns[column] = new Column();
+        }
+        if (runs.count == 0) {
+            runs.firstPlayer = player;
+            runs.add(1);
+        } else if ((runs.firstPlayer ^ ((runs.count - 1) & 1)) == player) {
+            runs.ends[runs.count - 1]++;
+        } else {
+            runs.add(runs.ends[runs.count - 1] + 1);
+        }
+    }
+
+    @Override
+    public void pop(int column) {
+        Column runs = columnRuns[column];
+        int top = runs.count - 1;
+        int start = top == 0 ? 0 : runs.ends[top - 1];
+        if (--runs.ends[top] == start) {
+            runs.count--;
+        }
+    }
+
+    private static class Column {
+
+        private int firstPlayer;
+
+        private int[] ends = new int[INITIAL_RUNS];
+
+        private int count;
+
+        private void add(int end) {
+            if (count == ends.length) {
+                int[] grown = new int[2 * count];
+                System.arraycopy(ends, 0, grown, 0, count);
+                ends = grown;
+            }
+            ends[count++] = end;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only endgame table of a small Connect-N board, memory-mapped from
+ * the file written by {@link TablebaseGenerator}. It holds the result with
+ * perfect play of every position, so a lookup is a single read with no
+ * search and nothing to load first.
+ * <p>
+ * File layout, big endian: a header with {@link TablebaseIndex#MAGIC}, the
+ * columns, the rows and the discs to win, followed by 2 bits per position
+ * in {@link TablebaseIndex} order.
+ */
+public class Tablebase {
+
+    /**
+     * Result with perfect play, for the player to move.
+     */
+    public enum Result {
+        LOSS, DRAW, WIN
+    }
+
+    private static final Result[] RESULTS = {null, Result.LOSS, Result.DRAW, Result.WIN};
+
+    private final TablebaseIndex index;
+
+    private final MappedByteBuffer[] values;
+
+    private Tablebase(TablebaseIndex index, MappedByteBuffer[] values) {
+        this.index = index;
+        this.values = values;
+    }
+
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), TablebaseIndex.HEADER_SIZE));
+            header.order(TablebaseIndex.ORDER);
+            if (header.limit() < TablebaseIndex.HEADER_SIZE || header.getInt(0) != TablebaseIndex.MAGIC) {
+                throw new IOException(String.format("%s is not a tablebase", file));
+            }
+            TablebaseIndex index = new TablebaseIndex(header.getInt(4), header.getInt(8), header.getInt(12));
+            if (channel.size() != TablebaseIndex.HEADER_SIZE + index.dataBytes()) {
+                throw new IOException(String.format("Tablebase %s is truncated", file));
+            }
+            return new Tablebase(index, index.map(channel, FileChannel.MapMode.READ_ONLY));
+        }
+    }
+
+    public int getColumns() {
+        return index.getColumns();
+    }
+
+    public int getRows() {
+        return index.getRows();
+    }
+
+    public int getDiscsToWin() {
+        return index.getDiscsToWin();
+    }
+
+    /**
+     * @return the number of positions in the table
+     */
+    public long size() {
+        return index.size();
+    }
+
+    /**
+     * @return the result of the game with perfect play from now on
+     */
+    public Result getResult(ConnectNGame game) {
+        if (game.getColumns() != getColumns() || game.getRows() != getRows()
+                || game.getDiscsToWin() != getDiscsToWin()) {
+            throw new RuntimeException(String.format("The tablebase is for %dx%d boards with %d in a row",
+                    getColumns(), getRows(), getDiscsToWin()));
+        }
+        int code = 0;
+        long firstPlayer = 0;
+        int ordinal = 0;
+        for (int column = getColumns() - 1; column >= 0; column--) {
+            code = code * (getRows() + 1) + game.getHeight(column);
+        }
+        for (int column = 0; column < getColumns(); column++) {
+            for (int row = 0; row < game.getHeight(column); row++, ordinal++) {
+                if (game.getPlayerAt(column, row) == 0) firstPlayer |= 1L << ordinal;
+            }
+        }
+        return RESULTS[TablebaseIndex.get(values, index.index(code, firstPlayer))];
+    }
+}
@@ -0,0 +1,168 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the result with perfect play of every position of a small
+ * Connect-N board and writes it as a {@link Tablebase} file.
+ * <p>
+ * Positions are solved backwards, from the full board down to the empty
+ * one. A position only depends on the ones with one more disc, so all the
+ * positions with the same number of discs are solved in parallel, reading
+ * the values already written to the mapped file.
+ */
+public class TablebaseGenerator {
+
+    /**
+     * Positions solved by each task.
+     */
+    private static final int SLICE = 1 << 16;
+
+    /**
+     * Atomic access to the packed values, since neighbouring positions
+     * solved by different threads share an int.
+     */
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(int[].class, TablebaseIndex.ORDER);
+
+    private final int threads;
+
+    public TablebaseGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public TablebaseGenerator(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return the number of positions written
+     */
+    public long generate(int columns, int rows, int discsToWin, Path file) throws IOException {
+        TablebaseIndex index = new TablebaseIndex(columns, rows, discsToWin);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(TablebaseIndex.HEADER_SIZE).order(TablebaseIndex.ORDER);
+            header.putInt(TablebaseIndex.MAGIC).putInt(columns).putInt(rows).putInt(discsToWin).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            MappedByteBuffer[] values = index.map(channel, FileChannel.MapMode.READ_WRITE);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int discs = index.getCells(); discs >= 0; discs--) {
+                    solveLayer(index, values, discs, pool);
+                }
+            } finally {
+                pool.shutdown();
+            }
+            for (MappedByteBuffer segment : values) {
+                segment.force();
+            }
+        }
+        return index.size();
+    }
+
+    private void solveLayer(TablebaseIndex index, MappedByteBuffer[] values, int discs, ForkJoinPool pool) {
+        List<Callable<Void>> slices = new ArrayList<>();
+        for (int code : index.codesWithDiscs(discs)) {
+            long size = index.blockSize(code);
+            for (long from = 0; from < size; from += SLICE) {
+                long start = from;
+                long end = Math.min(size, from + SLICE);
+                slices.add(() -> {
+                    solveSlice(index, values, code, start, end);
+                    return null;
+                });
+            }
+        }
+        try {
+            for (Future<Void> slice : pool.invokeAll(slices)) {
+                slice.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Solves the positions of a heights code with ranks from start to end.
+     */
+    private static void solveSlice(TablebaseIndex index, MappedByteBuffer[] values, int code, long start, long end) {
+        int columns = index.getColumns();
+        int discs = index.discsOf(code);
+        boolean firstToMove = discs % 2 == 0;
+        long occupied = index.occupied(code);
+        int[] heights = new int[columns];
+        int[] firstOrdinal = new int[columns];
+        for (int column = 0, ordinal = 0; column < columns; column++) {
+            heights[column] = index.heightOf(code, column);
+            firstOrdinal[column] = ordinal;
+            ordinal += heights[column];
+        }
+
+        long set = index.unrank(start, TablebaseIndex.firstPlayerDiscs(discs));
+        long position = index.index(code, 0) + start;
+        for (long rank = start; rank < end; rank++, position++) {
+            long first = index.scatter(code, set);
+            long mover = firstToMove ? first : occupied ^ first;
+            long opponent = occupied ^ mover;
+            int value;
+            if (index.hasLine(opponent)) {
+                value = TablebaseIndex.LOSS;
+            } else if (discs == index.getCells()) {
+                value = TablebaseIndex.DRAW;
+            } else {
+                value = TablebaseIndex.LOSS;
+                for (int column = 0; column < columns && value != TablebaseIndex.WIN; column++) {
+                    int row = heights[column];
+                    if (row == index.getRows()) continue;
+                    if (index.hasLine(mover | index.bit(column, row))) {
+                        value = TablebaseIndex.WIN;
+                        continue;
+                    }
+                    // The new disc takes its place in the numbering, moving up the ones after it
+                    int ordinal = firstOrdinal[column] + row;
+                    long low = set & ((1L << ordinal) - 1);
+                    long child = low | (set ^ low) << 1 | (firstToMove ? 1L << ordinal : 0);
+                    int childValue = TablebaseIndex.get(values, index.index(index.codeAfterPlaying(code, column), child));
+                    value = Math.max(value, TablebaseIndex.WIN + TablebaseIndex.LOSS - childValue);
+                }
+            }
+            put(values, position, value);
+            set = nextSet(set);
+        }
+    }
+
+    /**
+     * @return the next set with as many elements, in colex order
+     */
+    private static long nextSet(long set) {
+        if (set == 0) return 0;
+        long lowest = set & -set;
+        long ripple = set + lowest;
+        return ripple | ((set ^ ripple) >>> 2) / lowest;
+    }
+
+    private static void put(MappedByteBuffer[] segments, long index, int value) {
+        long offset = (index >>> 4) * Integer.BYTES;
+        int bits = value << ((int) (index & 15) << 1);
+        WORDS.getAndBitwiseOr(segments[(int) (offset >>> TablebaseIndex.SEGMENT_SHIFT)],
+                (int) (offset & ((1L << TablebaseIndex.SEGMENT_SHIFT) - 1)), bits);
+    }
+}
@@ -0,0 +1,291 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Perfect index of the positions of a Connect-N board, shared by
+ * {@link Tablebase} and {@link TablebaseGenerator}.
+ * <p>
+ * A position is given by the height of every column plus which of the discs
+ * are the first player's. The heights are read as a number in base
+ * {@code rows + 1}, the heights code, and every code owns a block of
+ * consecutive indexes, ordered by number of discs. Inside its block, a
+ * position is ranked by the set of discs of the first player, numbering the
+ * discs column by column from the bottom, in colex order. Every position
+ * gets a different index and no index is left unused.
+ * <p>
+ * Discs are also laid out as bitboards like {@link BitBoard}'s, one column
+ * every {@code rows + 1} bits, so the board must fit in a {@code long}.
+ */
+class TablebaseIndex {
+
+    static final int MAGIC = 0x43345442;
+
+    /**
+     * Magic, columns, rows and discs to win, keeping the values int aligned.
+     */
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    static final ByteOrder ORDER = ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Bytes per mapped segment, so tables can be bigger than one mapping.
+     */
+    static final int SEGMENT_SHIFT = 30;
+
+    static final int LOSS = 1;
+
+    static final int DRAW = 2;
+
+    static final int WIN = 3;
+
+    private final int columns;
+
+    private final int rows;
+
+    private final int discsToWin;
+
+    private final int height;
+
+    private final int[] directions;
+
+    private final int[] powers;
+
+    private final long[] blockStart;
+
+    private final long[][] binomials;
+
+    private final int[][] codesByDiscs;
+
+    private final long size;
+
+    TablebaseIndex(int columns, int rows, int discsToWin) {
+        if (columns < 1 || rows < 1 || columns * (rows + 1) > Long.SIZE) {
+            throw new RuntimeException(String.format("Board %dx%d is too big for a tablebase", columns, rows));
+        }
+        if (discsToWin < 1) {
+            throw new RuntimeException(String.format("Invalid number of discs to win %d", discsToWin));
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.discsToWin = discsToWin;
+        this.height = rows + 1;
+        this.directions = new int[]{1, height, height + 1, height - 1};
+        int cells = columns * rows;
+
+        binomials = new long[cells + 2][cells + 2];
+        for (int n = 0; n < binomials.length; n++) {
+            binomials[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomials[n][k] = binomials[n - 1][k - 1] + binomials[n - 1][k];
+            }
+        }
+
+        powers = new int[columns + 1];
+        powers[0] = 1;
+        for (int column = 0; column < columns; column++) {
+            powers[column + 1] = Math.multiplyExact(powers[column], height);
+        }
+        int[] counts = new int[cells + 1];
+        for (int code = 0; code < powers[columns]; code++) {
+            counts[discsOf(code)]++;
+        }
+        codesByDiscs = new int[cells + 1][];
+        for (int discs = 0; discs <= cells; discs++) {
+            codesByDiscs[discs] = new int[counts[discs]];
+            counts[discs] = 0;
+        }
+        for (int code = 0; code < powers[columns]; code++) {
+            int discs = discsOf(code);
+            codesByDiscs[discs][counts[discs]++] = code;
+        }
+        blockStart = new long[powers[columns]];
+        long next = 0;
+        for (int[] codes : codesByDiscs) {
+            for (int code : codes) {
+                blockStart[code] = next;
+                next = Math.addExact(next, blockSize(code));
+            }
+        }
+        size = next;
+    }
+
+    int getColumns() {
+        return columns;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getDiscsToWin() {
+        return discsToWin;
+    }
+
+    int getCells() {
+        return columns * rows;
+    }
+
+    /**
+     * @return the number of positions, and so of values in the table
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return bytes of the values, packed 16 to an int
+     */
+    long dataBytes() {
+        return ((size + 15) >>> 4) * Integer.BYTES;
+    }
+
+    /**
+     * @return the heights codes of the positions with that many discs
+     */
+    int[] codesWithDiscs(int discs) {
+        return codesByDiscs[discs];
+    }
+
+    int heightOf(int code, int column) {
+        return code / powers[column] % height;
+    }
+
+    /**
+     * @return the code after adding a disc to the column
+     */
+    int codeAfterPlaying(int code, int column) {
+        return code + powers[column];
+    }
+
+    int discsOf(int code) {
+        int discs = 0;
+        for (int column = 0; column < columns; column++) {
+            discs += heightOf(code, column);
+        }
+        return discs;
+    }
+
+    /**
+     * @return the number of discs the first player has among that many
+     */
+    static int firstPlayerDiscs(int discs) {
+        return (discs + 1) / 2;
+    }
+
+    long blockSize(int code) {
+        int discs = discsOf(code);
+        return binomials[discs][firstPlayerDiscs(discs)];
+    }
+
+    /**
+     * @param firstPlayer bit {@code i} is set when the i-th disc, numbered
+     *                    column by column from the bottom, is the first
+     *                    player's
+     */
+    long index(int code, long firstPlayer) {
+        return blockStart[code] + rank(firstPlayer);
+    }
+
+    /**
+     * Colex rank of the set among those with as many elements.
+     */
+    long rank(long set) {
+        long rank = 0;
+        int element = 1;
+        while (set != 0) {
+            rank += binomials[Long.numberOfTrailingZeros(set)][element++];
+            set &= set - 1;
+        }
+        return rank;
+    }
+
+    /**
+     * @return the set of {@code elements} elements with the given colex rank
+     */
+    long unrank(long rank, int elements) {
+        long set = 0;
+        int position = getCells();
+        for (int element = elements; element > 0; element--) {
+            while (binomials[position][element] > rank) {
+                position--;
+            }
+            set |= 1L << position;
+            rank -= binomials[position][element];
+        }
+        return set;
+    }
+
+    /**
+     * @return the discs of the first player as a bitboard
+     */
+    long scatter(int code, long firstPlayer) {
+        long discs = 0;
+        int ordinal = 0;
+        for (int column = 0; column < columns; column++) {
+            int columnHeight = heightOf(code, column);
+            discs |= ((firstPlayer >>> ordinal) & ((1L << columnHeight) - 1)) << column * height;
+            ordinal += columnHeight;
+        }
+        return discs;
+    }
+
+    /**
+     * @return all the discs of the position as a bitboard
+     */
+    long occupied(int code) {
+        long discs = 0;
+        for (int column = 0; column < columns; column++) {
+            discs |= ((1L << heightOf(code, column)) - 1) << column * height;
+        }
+        return discs;
+    }
+
+    long bit(int column, int row) {
+        return 1L << column * height + row;
+    }
+
+    /**
+     * Whether the discs have {@code discsToWin} in a row anywhere.
+     */
+    boolean hasLine(long discs) {
+        for (int direction : directions) {
+            long line = discs;
+            for (int i = 1; i < discsToWin && line != 0; i++) {
+                // A line longer than the board would shift past the word
+                line = i * direction < Long.SIZE ? line & (discs >>> i * direction) : 0;
+            }
+            if (line != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Maps the values of the table, one buffer every 2^{@link #SEGMENT_SHIFT}
+     * bytes.
+     */
+    MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        long bytes = dataBytes();
+        int count = (int) ((bytes + (1L << SEGMENT_SHIFT) - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.max(count, 1)];
+        for (int i = 0; i < segments.length; i++) {
+            long offset = (long) i << SEGMENT_SHIFT;
+            long length = Math.min(1L << SEGMENT_SHIFT, bytes - offset);
+            segments[i] = channel.map(mode, HEADER_SIZE + offset, Math.max(length, 0));
+            segments[i].order(ORDER);
+        }
+        return segments;
+    }
+
+    /**
+     * @return the 2 bit value at the index, or 0 when it is not set
+     */
+    static int get(MappedByteBuffer[] segments, long index) {
+        long offset = (index >>> 4) * Integer.BYTES;
+        int word = segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & ((1L << SEGMENT_SHIFT) - 1)));
+        return (word >>> ((int) (index & 15) << 1)) & 3;
+    }
+}
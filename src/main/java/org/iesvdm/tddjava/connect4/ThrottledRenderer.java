@@ -0,0 +1,81 @@
+package org.iesvdm.tddjava.connect4;
+
+/**
+ * Forwards the board to another renderer only every N moves, or only when
+ * the game ends. Results and errors are always forwarded.
+ */
+public class ThrottledRenderer implements Connect4Renderer {
+
+    private final Connect4Renderer delegate;
+
+    private final int everyMoves;
+
+    private BitBoard lastBoard;
+
+    private boolean lastMoveRendered;
+
+    /**
+     * @param everyMoves render the board when the number of discs is a
+     *                   multiple of it; zero or less renders it only once
+     *                   the game ends
+     */
+    public ThrottledRenderer(Connect4Renderer delegate, int everyMoves) {
+        this.delegate = delegate;
+        this.everyMoves = everyMoves;
+    }
+
+    public static ThrottledRenderer atGameEnd(Connect4Renderer delegate) {
+        return new ThrottledRenderer(delegate, 0);
+    }
+
+    @Override
+    public void discPlaced(BitBoard board) {
+        lastBoard = board;
+        lastMoveRendered = everyMoves > 0 && board.getMoves() % everyMoves == 0;
+        if (lastMoveRendered) {
+            delegate.discPlaced(board);
+        }
+    }
+
+    @Override
+    public void discRemoved(BitBoard board, Connect4.Color winner) {
+        lastBoard = board;
+        delegate.discRemoved(board, winner);
+    }
+
+    @Override
+    public void turnChanged(Connect4.Color player) {
+        if (lastMoveRendered) {
+            delegate.turnChanged(player);
+        }
+    }
+
+    @Override
+    public void winner(Connect4.Color player) {
+        renderLastBoard();
+        delegate.winner(player);
+    }
+
+    @Override
+    public void draw() {
+        renderLastBoard();
+        delegate.draw();
+    }
+
+    @Override
+    public void columnFull(BitBoard board, int discs) {
+        delegate.columnFull(board, discs);
+    }
+
+    @Override
+    public void columnOutOfBounds(BitBoard board) {
+        delegate.columnOutOfBounds(board);
+    }
+
+    private void renderLastBoard() {
+        if (!lastMoveRendered && lastBoard != null) {
+            delegate.discPlaced(lastBoard);
+            lastMoveRendered = true;
+        }
+    }
+}
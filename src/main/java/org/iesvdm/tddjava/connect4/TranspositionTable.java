@@ -0,0 +1,60 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size hash table from position keys to small scores. Every slot keeps
+ * the key and the value in the same {@code long}, and a new entry simply
+ * replaces whatever the slot held before.
+ * <p>
+ * Since an entry is a single word written atomically, several search threads
+ * can share one table without locks: a reader either sees a whole entry or
+ * a key that does not match.
+ */
+public class TranspositionTable {
+
+    /**
+     * A prime close to 2^20, so keys spread evenly over the slots.
+     */
+    public static final int DEFAULT_SIZE = 1048573;
+
+    private static final int VALUE_BITS = 8;
+
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    private final AtomicLongArray entries;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    public TranspositionTable(int size) {
+        entries = new AtomicLongArray(size);
+    }
+
+    /**
+     * @param key   position key, at most 56 bits long
+     * @param value between 1 and 255; zero means "not found"
+     */
+    public void put(long key, int value) {
+        entries.setOpaque(index(key), key << VALUE_BITS | value);
+    }
+
+    /**
+     * @return the value stored for the key, or zero when it is not stored
+     */
+    public int get(long key) {
+        long entry = entries.getOpaque(index(key));
+        return entry >>> VALUE_BITS == key ? (int) (entry & VALUE_MASK) : 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0);
+        }
+    }
+
+    private int index(long key) {
+        return (int) (key % entries.length());
+    }
+}
@@ -0,0 +1,156 @@
+package org.iesvdm.tddjava.tictactoe;
+
+/**
+ * TicTacToe on an m x n board where k in a row wins, e.g. gomoku on 19x19
+ * with k = 5. It plays like {@link TicTacToe}: {@code x} goes from 1 to m,
+ * {@code y} from 1 to n, and it answers with the same messages.
+ * <p>
+ * The marks of each player are a bitset. For every direction, the two ends
+ * of each run of marks hold the length of the run, so marking a box joins
+ * the runs on either side in constant time and a win never depends on the
+ * size of the board. Lengths are capped at k, as only reaching k matters, so
+ * they take a byte per direction and box, or a short when k is over 127.
+ */
+public class MnkGame {
+
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
+    private final int m;
+    private final int n;
+    private final int k;
+    private final long[] xBoxes;
+    private final long[] oBoxes;
+    /**
+     * Length of the run of marks through a box, by direction, capped at k;
+     * only kept up to date at both ends of every run. Only one of them is
+     * used, depending on k.
+     */
+    private final byte[][] runs;
+    private final short[][] longRuns;
+    private int moves;
+    private char lastPlayer = '\0';
+
+    public MnkGame(int m, int n, int k) {
+        if (m < 1 || n < 1 || (long) m * n > Integer.MAX_VALUE) {
+            throw new RuntimeException(String.format("Invalid board size %dx%d", m, n));
+        }
+        if (k < 1 || k > Short.MAX_VALUE) {
+            throw new RuntimeException(String.format("Invalid number of marks to win %d", k));
+        }
+        this.m = m;
+        this.n = n;
+        this.k = k;
+        int boxes = m * n;
+        xBoxes = new long[(boxes + Long.SIZE - 1) / Long.SIZE];
+        oBoxes = new long[xBoxes.length];
+        if (k <= Byte.MAX_VALUE) {
+            runs = new byte[DIRECTIONS.length][boxes];
+            longRuns = null;
+        } else {
+            runs = null;
+            longRuns = new short[DIRECTIONS.length][boxes];
+        }
+    }
+
+    public String play(int x, int y) {
+        checkAxis(x, m);
+        checkAxis(y, n);
+        lastPlayer = nextPlayer();
+        int box = setBox(x, y, lastPlayer);
+        if (isWin(x - 1, y - 1, box)) {
+            return lastPlayer + " is the winner";
+        } else if (isDraw()) {
+            return "The result is draw";
+        } else {
+            return "No winner";
+        }
+    }
+
+    public char nextPlayer() {
+        if (lastPlayer == 'X') {
+            return 'O';
+        }
+        return 'X';
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    private void checkAxis(int axis, int size) {
+        if (axis < 1 || axis > size) {
+            throw new RuntimeException("X is outside board");
+        }
+    }
+
+    private int setBox(int x, int y, char lastPlayer) {
+        int box = (x - 1) * n + (y - 1);
+        long bit = 1L << box;
+        int word = box >>> 6;
+        if (((xBoxes[word] | oBoxes[word]) & bit) != 0) {
+            throw new RuntimeException("Box is occupied");
+        } else {
+            if (lastPlayer == 'X') {
+                xBoxes[word] |= bit;
+            } else {
+                oBoxes[word] |= bit;
+            }
+            moves++;
+        }
+        return box;
+    }
+
+    /**
+     * Joins the box to the runs of the player next to it in every direction.
+     */
+    private boolean isWin(int x, int y, int box) {
+        long[] boxes = lastPlayer == 'X' ? xBoxes : oBoxes;
+        boolean win = false;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int dx = DIRECTIONS[d][0];
+            int dy = DIRECTIONS[d][1];
+            int step = dx * n + dy;
+            int before = isMarked(boxes, x - dx, y - dy) ? getRun(d, box - step) : 0;
+            int after = isMarked(boxes, x + dx, y + dy) ? getRun(d, box + step) : 0;
+            // Once capped, the far ends may be written inside a run of k or
+            // more, whose real ends already hold k; inner boxes are never read
+            int length = Math.min(before + 1 + after, k);
+            setRun(d, box, length);
+            setRun(d, box - before * step, length);
+            setRun(d, box + after * step, length);
+            win |= length == k;
+        }
+        return win;
+    }
+
+    private int getRun(int d, int box) {
+        return runs != null ? runs[d][box] : longRuns[d][box];
+    }
+
+    private void setRun(int d, int box, int length) {
+        if (runs != null) {
+            runs[d][box] = (byte) length;
+        } else {
+            longRuns[d][box] = (short) length;
+        }
+    }
+
+    private boolean isMarked(long[] boxes, int x, int y) {
+        if (x < 0 || x >= m || y < 0 || y >= n) return false;
+        int box = x * n + y;
+        return (boxes[box >>> 6] & 1L << box) != 0;
+    }
+
+    private boolean isDraw() {
+        return moves == m * n;
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Perfect play for every TicTacToe position, solved once when the class is
+ * loaded.
+ * <p>
+ * A position is coded in base 3, one digit per box: 0 empty, 1 X and 2 O,
+ * box {@code (x - 1) * 3 + (y - 1)} being the digit of weight
+ * {@code 3^box}. For each of the 19683 codes and each player to move, one
+ * byte holds the best move, in the low four bits, and the result under
+ * perfect play. The player to move is not taken from the number of marks,
+ * since {@link TicTacToe} gives up the turn on an occupied box.
+ */
+final class PerfectPlay {
+
+    static final int BOXES = 9;
+
+    static final int CODES = 19683;
+
+    static final int NO_MOVE = 15;
+
+    private static final int[] POWERS = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+    private static final int[][] LINES = {
+            {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+            {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+            {0, 4, 8}, {2, 4, 6}};
+
+    private static final int X_WINS = 1;
+
+    private static final int DRAW = 2;
+
+    private static final int O_WINS = 3;
+
+    private static final int UNSOLVED = Integer.MIN_VALUE;
+
+    /**
+     * Indexed by {@code code << 1 | mover}, mover 0 for X and 1 for O.
+     */
+    private static final byte[] TABLE = solveAll();
+
+    private PerfectPlay() {
+    }
+
+    /**
+     * @return the code after the player, 'X' or 'O', marks the box
+     */
+    static int play(int code, int box, char player) {
+        return code + (player == 'X' ? 1 : 2) * POWERS[box];
+    }
+
+    /**
+     * @return the best box for the player to move, 'X' or 'O', or
+     * {@link #NO_MOVE} once someone has won or the board is full. A quicker
+     * win, or a slower loss, is preferred.
+     */
+    static int bestMove(int code, char player) {
+        return entry(code, player) & 0xF;
+    }
+
+    /**
+     * @return 'X' or 'O' when that player wins with perfect play, '\0' for
+     * a draw
+     */
+    static char evaluate(int code, char player) {
+        switch (entry(code, player) >>> 4) {
+            case X_WINS:
+                return 'X';
+            case O_WINS:
+                return 'O';
+            default:
+                return '\0';
+        }
+    }
+
+    private static int entry(int code, char player) {
+        if (code < 0 || code >= CODES) {
+            throw new RuntimeException(String.format("Invalid position %d", code));
+        }
+        return TABLE[code << 1 | (player == 'X' ? 0 : 1)];
+    }
+
+    private static byte[] solveAll() {
+        byte[] table = new byte[2 * CODES];
+        int[] scores = new int[2 * CODES];
+        Arrays.fill(scores, UNSOLVED);
+        int[] marks = new int[BOXES];
+        for (int code = 0; code < CODES; code++) {
+            int empty = 0;
+            for (int box = 0, rest = code; box < BOXES; box++, rest /= 3) {
+                marks[box] = rest % 3;
+                if (marks[box] == 0) empty++;
+            }
+            // Positions after a win are solved as well, since play goes on
+            solve(code, marks, empty, 1, table, scores);
+            solve(code, marks, empty, 2, table, scores);
+        }
+        return table;
+    }
+
+    /**
+     * Negamax, memoized by code and player, scoring a win by how soon it
+     * comes.
+     *
+     * @param player 1 for X and 2 for O, like the digits of the code
+     * @return the score for the player to move
+     */
+    private static int solve(int code, int[] marks, int empty, int player, byte[] table, int[] scores) {
+        int index = code << 1 | (player - 1);
+        if (scores[index] != UNSOLVED) return scores[index];
+        int score;
+        int best = NO_MOVE;
+        if (hasLine(marks, 3 - player)) {
+            score = -empty - 1;
+        } else if (hasLine(marks, player)) {
+            score = empty + 1;
+        } else if (empty == 0) {
+            score = 0;
+        } else {
+            score = Integer.MIN_VALUE;
+            for (int box = 0; box < BOXES; box++) {
+                if (marks[box] != 0) continue;
+                marks[box] = player;
+                int child = -solve(code + player * POWERS[box], marks, empty - 1, 3 - player, table, scores);
+                marks[box] = 0;
+                if (child > score) {
+                    score = child;
+                    best = box;
+                }
+            }
+        }
+        int result = score == 0 ? DRAW : (score > 0) == (player == 1) ? X_WINS : O_WINS;
+        table[index] = (byte) (result << 4 | best);
+        scores[index] = score;
+        return score;
+    }
+
+    private static boolean hasLine(int[] marks, int player) {
+        for (int[] line : LINES) {
+            if (marks[line[0]] == player && marks[line[1]] == player && marks[line[2]] == player) return true;
+        }
+        return false;
+    }
+}
@@ -2,24 +2,93 @@ package org.iesvdm.tddjava.tictactoe;
 
 public class TicTacToe {
 
-    private Character[][] board = {{'\0', '\0', '\0'}, {'\0', '\0', '\0'}, {'\0', '\0', '\0'}};
-    private char lastPlayer = '\0';
+    /**
+     * Outcome of {@link #tryPlay(int, int)}. Nothing changes on the board,
+     * nor whose turn it is, after {@link #OCCUPIED} or
+     * {@link #OUT_OF_BOUNDS}.
+     */
+    public enum PlayResult {
+        OK, WIN_X, WIN_O, DRAW, OCCUPIED, OUT_OF_BOUNDS
+    }
+
     private static final int SIZE = 3;
+    private static final int BOXES = SIZE * SIZE;
+    /**
+     * Every line as a mask of boxes, box {@code (x - 1) * 3 + (y - 1)} being
+     * bit {@code 1 << box}; the diagonals go last.
+     */
+    private static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100};
+    private int xBoxes;
+    private int oBoxes;
+    private int moves;
+    private char lastPlayer = '\0';
+    private int code;
 
     public String play(int x, int y) {
-        checkAxis(x);
-        checkAxis(y);
+        switch (tryPlay(x, y)) {
+            case OUT_OF_BOUNDS:
+                throw new RuntimeException("X is outside board");
+            case OCCUPIED:
+                // Trying an occupied box has always cost the turn
+                lastPlayer = nextPlayer();
+                throw new RuntimeException("Box is occupied");
+            case WIN_X:
+                return "X is the winner";
+            case WIN_O:
+                return "O is the winner";
+            case DRAW:
+                return "The result is draw";
+            default:
+                return "No winner";
+        }
+    }
+
+    /**
+     * Marks the box for the player to move, reporting an invalid move
+     * instead of throwing, so automated players pay no exception for it.
+     */
+    public PlayResult tryPlay(int x, int y) {
+        if (isOutside(x) || isOutside(y)) {
+            return PlayResult.OUT_OF_BOUNDS;
+        }
+        int box = (x - 1) * SIZE + (y - 1);
+        if (((xBoxes | oBoxes) & 1 << box) != 0) {
+            return PlayResult.OCCUPIED;
+        }
         lastPlayer = nextPlayer();
-        setBox(x, y, lastPlayer);
-        if (isWin(x, y)) {
-            return lastPlayer + " is the winner";
+        setBox(box, lastPlayer);
+        if (isWin(box)) {
+            return lastPlayer == 'X' ? PlayResult.WIN_X : PlayResult.WIN_O;
         } else if (isDraw()) {
-            return "The result is draw";
+            return PlayResult.DRAW;
         } else {
-            return "No winner";
+            return PlayResult.OK;
         }
     }
 
+    /**
+     * Empties the board and gives the turn back to X, so one game can be
+     * reused for many.
+     */
+    public void reset() {
+        xBoxes = 0;
+        oBoxes = 0;
+        moves = 0;
+        lastPlayer = '\0';
+        code = 0;
+    }
+
+    /**
+     * @return bit {@code box} set for every free box,
+     * {@code (x - 1) * 3 + (y - 1)}
+     */
+    public int legalMoves() {
+        return ~(xBoxes | oBoxes) & (1 << BOXES) - 1;
+    }
+
     public char nextPlayer() {
         if (lastPlayer == 'X') {
             return 'O';
@@ -27,48 +96,55 @@ public class TicTacToe {
         return 'X';
     }
 
-    private void checkAxis(int axis) {
-        if (axis < 1 || axis > SIZE) {
-            throw new RuntimeException("X is outside board");
-        }
+    /**
+     * Best box for the player to move, {@code (x - 1) * 3 + (y - 1)}, or -1
+     * once the game is over. It is a single table lookup.
+     */
+    public int bestMove() {
+        int box = PerfectPlay.bestMove(code, nextPlayer());
+        return box == PerfectPlay.NO_MOVE ? -1 : box;
+    }
+
+    /**
+     * Who wins from here if both play perfectly: 'X', 'O', or '\0' for a
+     * draw.
+     */
+    public char evaluate() {
+        return PerfectPlay.evaluate(code, nextPlayer());
+    }
+
+    private boolean isOutside(int axis) {
+        return axis < 1 || axis > SIZE;
     }
 
-    private void setBox(int x, int y, char lastPlayer) {
-        if (board[x - 1][y - 1] != '\0') {
-            throw new RuntimeException("Box is occupied");
+    private void setBox(int box, char lastPlayer) {
+        if (lastPlayer == 'X') {
+            xBoxes |= 1 << box;
         } else {
-            board[x - 1][y - 1] = lastPlayer;
+            oBoxes |= 1 << box;
         }
+        moves++;
+        code = PerfectPlay.play(code, box, lastPlayer);
     }
 
-    private boolean isWin(int x, int y) {
-        int playerTotal = lastPlayer * SIZE;
-        char horizontal, vertical, diagonal1, diagonal2;
-        horizontal = vertical = diagonal1 = diagonal2 = '\0';
-        for (int i = 0; i < SIZE; i++) {
-            horizontal += board[i][y - 1];
-            vertical += board[x - 1][i];
-            diagonal1 += board[i][i];
-            diagonal2 += board[i][SIZE - i - 1];
-        }
-        if (horizontal == playerTotal
-                || vertical == playerTotal
-                || diagonal1 == playerTotal
-                || diagonal2 == playerTotal) {
-            return true;
+    /**
+     * Checks the row and column of the box and both diagonals, wherever the
+     * box is, as play always has.
+     */
+    private boolean isWin(int box) {
+        int boxes = lastPlayer == 'X' ? xBoxes : oBoxes;
+        for (int i = 0; i < LINES.length; i++) {
+            int line = LINES[i];
+            boolean checked = i >= LINES.length - 2 || (line & 1 << box) != 0;
+            if (checked && (boxes & line) == line) {
+                return true;
+            }
         }
         return false;
     }
 
     private boolean isDraw() {
-        for (int x = 0; x < SIZE; x++) {
-            for (int y = 0; y < SIZE; y++) {
-                if (board[x][y] == '\0') {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return moves == BOXES;
     }
 
 }
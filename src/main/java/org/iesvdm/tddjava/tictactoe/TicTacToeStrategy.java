@@ -0,0 +1,37 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the next move of a {@link TicTacToeTournament} game.
+ */
+@FunctionalInterface
+public interface TicTacToeStrategy {
+
+    /**
+     * Plays a uniformly random free box.
+     */
+    TicTacToeStrategy RANDOM = (game, random) -> {
+        int free = game.legalMoves();
+        for (int skip = random.nextInt(Integer.bitCount(free)); skip > 0; skip--) {
+            free &= free - 1;
+        }
+        return Integer.numberOfTrailingZeros(free);
+    };
+
+    /**
+     * Plays the free box with the lowest number.
+     */
+    TicTacToeStrategy FIRST_FREE = (game, random) -> Integer.numberOfTrailingZeros(game.legalMoves());
+
+    /**
+     * Plays the move of the perfect-play table, winning as soon as it can.
+     */
+    TicTacToeStrategy PERFECT = (game, random) -> game.bestMove();
+
+    /**
+     * @return the box to mark, {@code (x - 1) * 3 + (y - 1)}; the game is
+     * not over. Anything but a free box loses the game.
+     */
+    int chooseBox(TicTacToe game, SplittableRandom random);
+}
@@ -0,0 +1,139 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays every strategy against every other, on both sides, in parallel.
+ * Every thread reuses a single {@link TicTacToe}, reset between games, and
+ * its own random source, so a given seed and thread count always give the
+ * same results.
+ */
+public class TicTacToeTournament {
+
+    private final List<TicTacToeStrategy> strategies;
+
+    private final int threads;
+
+    public TicTacToeTournament(List<TicTacToeStrategy> strategies) {
+        this(strategies, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TicTacToeTournament(List<TicTacToeStrategy> strategies, int threads) {
+        if (strategies.size() < 2) {
+            throw new RuntimeException(String.format("A tournament needs 2 strategies, not %d", strategies.size()));
+        }
+        this.strategies = List.copyOf(strategies);
+        this.threads = threads;
+    }
+
+    /**
+     * @param games games of every strategy against every other with each
+     *              side, so each pair plays twice as many
+     */
+    public TournamentStats run(long games, long seed) {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<TournamentStats>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            long share = games / threads + (i < games % threads ? 1 : 0);
+            SplittableRandom workerRandom = random.split();
+            workers.add(() -> play(share, workerRandom));
+        }
+
+        TournamentStats stats = new TournamentStats(strategies.size());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<TournamentStats> result : pool.invokeAll(workers)) {
+                stats.merge(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        stats.setElapsedNanos(System.nanoTime() - start);
+        return stats;
+    }
+
+    private TournamentStats play(long games, SplittableRandom random) {
+        ThreadMXBean threadBean = allocationCounter();
+        long allocated = threadBean == null ? 0 : threadBean.getCurrentThreadAllocatedBytes();
+        TournamentStats stats = new TournamentStats(strategies.size());
+        TicTacToe game = new TicTacToe();
+        for (int x = 0; x < strategies.size(); x++) {
+            for (int o = 0; o < strategies.size(); o++) {
+                if (x == o) continue;
+                for (long i = 0; i < games; i++) {
+                    game.reset();
+                    stats.record(x, o, play(game, x, o, random));
+                }
+            }
+        }
+        if (threadBean != null) {
+            stats.setAllocatedBytes(threadBean.getCurrentThreadAllocatedBytes() - allocated);
+        }
+        return stats;
+    }
+
+    /**
+     * @return the winning strategy, {@code x} or {@code o}, or -1 for a draw
+     */
+    private int play(TicTacToe game, int x, int o, SplittableRandom random) {
+        while (true) {
+            int player = game.nextPlayer() == 'X' ? x : o;
+            int box = strategies.get(player).chooseBox(game, random);
+            switch (game.tryPlay(box / 3 + 1, box % 3 + 1)) {
+                case OK:
+                    continue;
+                case DRAW:
+                    return -1;
+                case WIN_X:
+                case WIN_O:
+                    return player;
+                default:
+                    // An illegal move forfeits the game
+                    return player == x ? o : x;
+            }
+        }
+    }
+
+    private static ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean;
+        }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        String[] names = {"random", "first free", "perfect"};
+        List<TicTacToeStrategy> strategies = List.of(TicTacToeStrategy.RANDOM, TicTacToeStrategy.FIRST_FREE,
+                TicTacToeStrategy.PERFECT);
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        TournamentStats stats = new TicTacToeTournament(strategies).run(games, 42);
+        System.out.printf("%-12s %-12s %9s %9s %9s  %s%n", "strategy", "opponent", "wins", "draws", "losses",
+                "win rate (95% CI)");
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j < names.length; j++) {
+                if (i == j) continue;
+                System.out.printf("%-12s %-12s %9d %9d %9d  %.4f (%.4f - %.4f)%n", names[i], names[j],
+                        stats.getWins(i, j), stats.getDraws(i, j), stats.getLosses(i, j), stats.getWinRate(i, j),
+                        stats.getWinRateLower(i, j), stats.getWinRateUpper(i, j));
+            }
+        }
+        System.out.printf("%d games in %.2f s, %.0f games/s, %.1f MB/s allocated%n", stats.getGames(),
+                stats.getElapsedNanos() / 1e9, stats.getGamesPerSecond(), stats.getAllocationRate() / 1e6);
+    }
+}
@@ -0,0 +1,146 @@
+package org.iesvdm.tddjava.tictactoe;
+
+/**
+ * Round-robin results of a {@link TicTacToeTournament}: wins, draws and
+ * losses of every strategy against every other, whichever side it played,
+ * plus how fast the games went and how much they allocated.
+ */
+public class TournamentStats {
+
+    /**
+     * Normal quantile for 95% confidence intervals.
+     */
+    public static final double Z = 1.959964;
+
+    private final int strategies;
+
+    private final long[][] wins;
+
+    private final long[][] draws;
+
+    private long games;
+
+    private long elapsedNanos;
+
+    private long allocatedBytes = -1;
+
+    public TournamentStats(int strategies) {
+        this.strategies = strategies;
+        this.wins = new long[strategies][strategies];
+        this.draws = new long[strategies][strategies];
+    }
+
+    /**
+     * @param winner {@code x} or {@code o} for the winning strategy, or -1
+     *               for a draw
+     */
+    public void record(int x, int o, int winner) {
+        if (winner < 0) {
+            draws[x][o]++;
+            draws[o][x]++;
+        } else {
+            wins[winner][winner == x ? o : x]++;
+        }
+        games++;
+    }
+
+    public void merge(TournamentStats other) {
+        for (int i = 0; i < strategies; i++) {
+            for (int j = 0; j < strategies; j++) {
+                wins[i][j] += other.wins[i][j];
+                draws[i][j] += other.draws[i][j];
+            }
+        }
+        games += other.games;
+        if (other.allocatedBytes >= 0) {
+            allocatedBytes = Math.max(allocatedBytes, 0) + other.allocatedBytes;
+        }
+    }
+
+    public int getStrategies() {
+        return strategies;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return games between the two strategies, on either side
+     */
+    public long getGames(int strategy, int opponent) {
+        return wins[strategy][opponent] + wins[opponent][strategy] + draws[strategy][opponent];
+    }
+
+    public long getWins(int strategy, int opponent) {
+        return wins[strategy][opponent];
+    }
+
+    public long getDraws(int strategy, int opponent) {
+        return draws[strategy][opponent];
+    }
+
+    public long getLosses(int strategy, int opponent) {
+        return wins[opponent][strategy];
+    }
+
+    public double getWinRate(int strategy, int opponent) {
+        long games = getGames(strategy, opponent);
+        return games == 0 ? 0 : (double) getWins(strategy, opponent) / games;
+    }
+
+    /**
+     * @return lower end of the Wilson score interval of the win rate
+     */
+    public double getWinRateLower(int strategy, int opponent) {
+        return wilson(getWins(strategy, opponent), getGames(strategy, opponent), -1);
+    }
+
+    /**
+     * @return upper end of the Wilson score interval of the win rate
+     */
+    public double getWinRateUpper(int strategy, int opponent) {
+        return wilson(getWins(strategy, opponent), getGames(strategy, opponent), 1);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return bytes allocated by the threads playing, or -1 when the JVM
+     * cannot tell
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return bytes allocated per second, or -1 when unknown
+     */
+    public double getAllocationRate() {
+        if (allocatedBytes < 0) return -1;
+        return elapsedNanos == 0 ? 0 : allocatedBytes * 1e9 / elapsedNanos;
+    }
+
+    private static double wilson(long successes, long trials, int sign) {
+        if (trials == 0) return sign < 0 ? 0 : 1;
+        double p = (double) successes / trials;
+        double z2 = Z * Z / trials;
+        double center = p + z2 / 2;
+        double spread = Z * Math.sqrt(p * (1 - p) / trials + z2 / (4 * trials));
+        return Math.min(1, Math.max(0, (center + sign * spread) / (1 + z2)));
+    }
+}
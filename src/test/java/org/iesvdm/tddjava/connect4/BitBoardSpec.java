@@ -0,0 +1,247 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitBoardSpec {
+
+    private BitBoard tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new BitBoard();
+    }
+
+    @Test
+    public void whenTheGameStartsTheBoardIsEmpty() {
+        assertThat(tested.getMoves()).isZero();
+        assertThat(tested.getCurrentPlayer()).isZero();
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            assertThat(tested.getHeight(column)).isZero();
+            assertThat(tested.getPlayerAt(column, 0)).isEqualTo(BitBoard.EMPTY);
+        }
+    }
+
+    @Test
+    public void whenDiscsArePlayedInAColumnThenTheyStack() {
+        assertThat(tested.play(3)).isZero();
+        assertThat(tested.play(3)).isOne();
+        assertThat(tested.getPlayerAt(3, 0)).isZero();
+        assertThat(tested.getPlayerAt(3, 1)).isOne();
+        assertThat(tested.getHeight(3)).isEqualTo(2);
+    }
+
+    @Test
+    public void whenAColumnIsFullThenItCannotBePlayed() {
+        for (int row = 0; row < BitBoard.ROWS; row++) {
+            tested.play(0);
+        }
+        assertThat(tested.canPlay(0)).isFalse();
+        assertThat(tested.canPlay(1)).isTrue();
+        assertThat(tested.legalMoves()).isEqualTo(0b1111110);
+    }
+
+    @Test
+    public void when4VerticalDiscsAreConnectedThenLastMoveWins() {
+        playAll(0, 1, 0, 1, 0, 1);
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(0);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void when4HorizontalDiscsAreConnectedThenLastMoveWins() {
+        playAll(1, 1, 2, 2, 4, 4);
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(3);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void when4DiagonalDiscsAreConnectedThenLastMoveWins() {
+        playAll(0, 1, 1, 2, 2, 3, 2, 3, 3, 6);
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(3);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void when4AntiDiagonalDiscsAreConnectedThenLastMoveWins() {
+        playAll(6, 5, 5, 4, 4, 3, 4, 3, 3, 0);
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(3);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void whenRandomGamesArePlayedThenWinDetectionMatchesACellByCellScan() {
+        Random random = new Random(7);
+        for (int game = 0; game < 2000; game++) {
+            tested = new BitBoard();
+            while (!tested.isFull()) {
+                int column = random.nextInt(BitBoard.COLUMNS);
+                if (!tested.canPlay(column)) continue;
+                int player = tested.getCurrentPlayer();
+                int row = tested.play(column);
+
+                assertThat(tested.isLastMoveWinning()).isEqualTo(scanFour(player, column, row));
+                assertThat(BitBoard.hasFour(tested.getDiscs(player))).isEqualTo(anyFour(player));
+                if (tested.isLastMoveWinning()) break;
+            }
+        }
+    }
+
+    @Test
+    public void whenMovesAreUndoneThenTheHashIsRestored() {
+        long empty = tested.getHash();
+        playAll(3, 2, 4);
+        long hash = tested.getHash();
+        tested.play(5);
+        tested.undo();
+
+        assertThat(tested.getHash()).isEqualTo(hash);
+        tested.undo();
+        tested.undo();
+        tested.undo();
+        assertThat(tested.getHash()).isEqualTo(empty);
+    }
+
+    @Test
+    public void whenTheSamePositionIsReachedInAnotherOrderThenTheHashIsTheSame() {
+        playAll(0, 1, 2, 3);
+        BitBoard other = new BitBoard();
+        for (int column : new int[]{2, 3, 0, 1}) {
+            other.play(column);
+        }
+
+        assertThat(tested.getHash()).isEqualTo(other.getHash());
+        assertThat(tested.getHash()).isNotEqualTo(new BitBoard().getHash());
+    }
+
+    @Test
+    public void whenPositionIsMirroredThenTheCanonicalKeyIsTheSame() {
+        playAll(0, 1, 1, 5);
+        BitBoard mirror = new BitBoard();
+        for (int column : new int[]{6, 5, 5, 1}) {
+            mirror.play(column);
+        }
+
+        assertThat(tested.getHash()).isNotEqualTo(mirror.getHash());
+        assertThat(tested.getMirrorHash()).isEqualTo(mirror.getHash());
+        assertThat(tested.getCanonicalKey()).isEqualTo(mirror.getCanonicalKey());
+    }
+
+    @Test
+    public void whenThreeDiscsAreInAColumnThenTheCellAboveIsAWinningMove() {
+        playAll(0, 1, 0, 1, 0);
+
+        assertThat(tested.winningMoves(0)).isEqualTo(BitBoard.bit(0, 3));
+        assertThat(tested.winningMoves(1)).isZero();
+        assertThat(BitBoard.columnOf(tested.winningMoves(0))).isZero();
+    }
+
+    @Test
+    public void whenTheWinningCellIsNotPlayableThenItIsOnlyAThreat() {
+        // RED tiene 3 en la fila 1 y las casillas de los extremos están en el aire
+        playAll(6, 1, 1, 2, 2, 3, 3);
+
+        assertThat(tested.threats(0)).isEqualTo(BitBoard.bit(0, 1) | BitBoard.bit(4, 1));
+        assertThat(tested.winningMoves(0)).isZero();
+    }
+
+    @Test
+    public void whenAMoveWinsThenItIsNotLosingEvenUnderAThreat() {
+        playAll(6, 1, 1, 2, 2, 3, 3);
+
+        assertThat(tested.winningMoves(1)).isEqualTo(BitBoard.bit(0, 0) | BitBoard.bit(4, 0));
+        assertThat(tested.nonLosingMoves()).isEqualTo(tested.possibleMoves());
+    }
+
+    @Test
+    public void whenOpponentCanWinNextThenTheOnlyNonLosingMoveBlocksIt() {
+        playAll(1, 4, 2, 4, 3);
+
+        assertThat(tested.nonLosingMoves()).isEqualTo(BitBoard.bit(0, 0));
+    }
+
+    @Test
+    public void whenOpponentHasTwoWinningMovesThenEveryMoveLoses() {
+        playAll(2, 6, 3, 6, 4);
+
+        assertThat(tested.winningMoves(0)).isEqualTo(BitBoard.bit(1, 0) | BitBoard.bit(5, 0));
+        assertThat(tested.nonLosingMoves()).isZero();
+    }
+
+    @Test
+    public void whenRandomPositionsAreQueriedThenMasksMatchPlayingEveryColumn() {
+        Random random = new Random(11);
+        for (int game = 0; game < 500; game++) {
+            tested = new BitBoard();
+            while (!tested.isFull() && !tested.isLastMoveWinning()) {
+                int player = tested.getCurrentPlayer();
+                long wins = 0;
+                long nonLosing = 0;
+                for (int column = 0; column < BitBoard.COLUMNS; column++) {
+                    if (!tested.canPlay(column)) continue;
+                    long cell = BitBoard.bit(column, tested.getHeight(column));
+                    assertThat(tested.possibleMoves() & cell).isNotZero();
+                    tested.play(column);
+                    if (tested.isLastMoveWinning()) {
+                        wins |= cell;
+                        nonLosing |= cell;
+                    } else if (tested.winningMoves(1 - player) == 0) {
+                        nonLosing |= cell;
+                    }
+                    tested.undo();
+                }
+                assertThat(tested.winningMoves(player)).isEqualTo(wins);
+                assertThat(tested.nonLosingMoves()).isEqualTo(nonLosing);
+
+                int column;
+                do {
+                    column = random.nextInt(BitBoard.COLUMNS);
+                } while (!tested.canPlay(column));
+                tested.play(column);
+            }
+        }
+    }
+
+    private void playAll(int... columns) {
+        for (int column : columns) {
+            tested.play(column);
+        }
+    }
+
+    private boolean anyFour(int player) {
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            for (int row = 0; row < BitBoard.ROWS; row++) {
+                if (tested.getPlayerAt(column, row) == player && scanFour(player, column, row)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean scanFour(int player, int column, int row) {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] direction : directions) {
+            int count = 1 + count(player, column, row, direction[0], direction[1])
+                    + count(player, column, row, -direction[0], -direction[1]);
+            if (count >= Connect4.DISCS_FOR_WIN) return true;
+        }
+        return false;
+    }
+
+    private int count(int player, int column, int row, int dColumn, int dRow) {
+        int count = 0;
+        for (int c = column + dColumn, r = row + dRow;
+             c >= 0 && c < BitBoard.COLUMNS && r >= 0 && r < BitBoard.ROWS && tested.getPlayerAt(c, r) == player;
+             c += dColumn, r += dRow) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,131 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoardSnapshotSpec {
+
+    private Connect4 tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new Connect4(Connect4Renderer.NULL);
+    }
+
+    @Test
+    public void whenTheGameStartsTheSnapshotIsEmpty() {
+        BoardSnapshot snapshot = tested.getSnapshot();
+
+        assertThat(snapshot.getMoves()).isZero();
+        assertThat(snapshot.getCurrentPlayer()).isEqualTo(Connect4.Color.RED);
+        assertThat(snapshot.getColorAt(0, 0)).isEqualTo(Connect4.Color.EMPTY);
+        assertThat(snapshot.getLastColumn()).isEqualTo(-1);
+    }
+
+    @Test
+    public void whenDiscsArePutThenTheSnapshotShowsThem() {
+        tested.putDisc(4);
+        tested.putDisc(4);
+
+        BoardSnapshot snapshot = tested.getSnapshot();
+
+        assertThat(snapshot.getColorAt(3, 0)).isEqualTo(Connect4.Color.RED);
+        assertThat(snapshot.getColorAt(3, 1)).isEqualTo(Connect4.Color.GREEN);
+        assertThat(snapshot.getHeight(3)).isEqualTo(2);
+        assertThat(snapshot.getLastColumn()).isEqualTo(3);
+        assertThat(snapshot.getCurrentPlayer()).isEqualTo(tested.getCurrentPlayer());
+    }
+
+    @Test
+    public void whenTheGameGoesOnThenOlderSnapshotsDoNotChange() {
+        tested.putDisc(1);
+        BoardSnapshot before = tested.getSnapshot();
+
+        tested.putDisc(2);
+        tested.undo();
+        tested.undo();
+
+        assertThat(before.getMoves()).isOne();
+        assertThat(before.getColorAt(0, 0)).isEqualTo(Connect4.Color.RED);
+        assertThat(tested.getSnapshot().getMoves()).isZero();
+    }
+
+    @Test
+    public void whenSearchMakesAndUnmakesMovesThenTheSnapshotIsNotReplaced() {
+        tested.putDisc(4);
+        BoardSnapshot published = tested.getSnapshot();
+
+        tested.makeMove(3);
+        tested.makeMove(3);
+        assertThat(tested.getSnapshot()).isSameAs(published);
+        tested.unmakeMove(3);
+        tested.unmakeMove(3);
+
+        assertThat(tested.getSnapshot()).isSameAs(published);
+        assertThat(tested.getPosition().getMoves()).isOne();
+    }
+
+    @Test
+    public void whenSomebodyWinsThenTheSnapshotIsFinished() {
+        for (int column : new int[]{1, 2, 1, 2, 1, 2, 1}) {
+            tested.putDisc(column);
+        }
+
+        assertThat(tested.getSnapshot().getWinner()).isEqualTo(Connect4.Color.RED);
+        assertThat(tested.getSnapshot().isFinished()).isTrue();
+    }
+
+    @Test
+    public void whenReadersPollWhileTheGameIsPlayedThenEverySnapshotIsConsistent() throws InterruptedException {
+        AtomicBoolean playing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong inconsistent = new AtomicLong();
+        Thread[] readers = new Thread[3];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (playing.get()) {
+                    if (!isConsistent(tested.getSnapshot())) inconsistent.incrementAndGet();
+                    reads.incrementAndGet();
+                }
+            });
+            readers[i].start();
+        }
+
+        Random random = new Random(17);
+        for (int game = 0; game < 2000; game++) {
+            while (!tested.getSnapshot().isFinished()) {
+                tested.putDisc(1 + random.nextInt(Connect4.COLUMNS));
+            }
+            while (tested.getSnapshot().getMoves() > 0) {
+                tested.undo();
+            }
+        }
+        playing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(reads.get()).isPositive();
+        assertThat(inconsistent.get()).isZero();
+    }
+
+    private static boolean isConsistent(BoardSnapshot snapshot) {
+        long red = snapshot.getDiscs(Connect4.Color.RED);
+        long green = snapshot.getDiscs(Connect4.Color.GREEN);
+        int discs = 0;
+        for (int column = 0; column < Connect4.COLUMNS; column++) {
+            long cells = ((red | green) & BitBoard.columnMask(column)) >>> column * BitBoard.HEIGHT;
+            // Los discos de una columna están apilados desde abajo
+            if ((cells & (cells + 1)) != 0) return false;
+            discs += snapshot.getHeight(column);
+        }
+        return (red & green) == 0 && discs == snapshot.getMoves()
+                && Long.bitCount(red) == (snapshot.getMoves() + 1) / 2;
+    }
+}
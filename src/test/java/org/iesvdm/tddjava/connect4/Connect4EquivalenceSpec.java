@@ -0,0 +1,89 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plays the same games on {@link Connect4} and on the original regex based
+ * implementation and compares everything they print.
+ */
+public class Connect4EquivalenceSpec {
+
+    private static final int GAMES = 500;
+
+    private PrintStream originalOut;
+
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        originalOut = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    public void afterEachTest() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void whenRandomGamesArePlayedThenOutputIsTheSameAsTheOriginal() {
+        Random random = new Random(42);
+        for (int game = 0; game < GAMES; game++) {
+            Connect4 tested = new Connect4();
+            LegacyConnect4 expected = new LegacyConnect4();
+            boolean finished = false;
+            while (!finished) {
+                // Incluye columnas fuera de rango para comparar también los mensajes de error
+                int column = random.nextInt(Connect4.COLUMNS + 2);
+
+                expected.putDisc(column);
+                String expectedOutput = takeOutput();
+                tested.putDisc(column);
+                String testedOutput = takeOutput();
+
+                assertThat(testedOutput).isEqualTo(expectedOutput);
+
+                finished = expected.isFinished();
+                expectedOutput = takeOutput();
+                assertThat(tested.isFinished()).isEqualTo(finished);
+                assertThat(takeOutput()).isEqualTo(expectedOutput);
+            }
+        }
+    }
+
+    @Test
+    public void whenBoardIsFilledWithoutWinnerThenBothReportADraw() {
+        Connect4 tested = new Connect4();
+        LegacyConnect4 expected = new LegacyConnect4();
+        // Columnas 1,2 / 3,4 / 5,6 rellenadas por parejas y la 7 al final: nadie conecta cuatro
+        int[] order = {1, 2, 1, 2, 2, 1, 2, 1, 1, 2, 1, 2,
+                3, 4, 3, 4, 4, 3, 4, 3, 3, 4, 3, 4,
+                5, 6, 5, 6, 6, 5, 6, 5, 5, 6, 5, 6,
+                7, 7, 7, 7, 7, 7};
+        for (int column : order) {
+            expected.putDisc(column);
+            tested.putDisc(column);
+        }
+        takeOutput();
+
+        assertThat(tested.isFinished()).isTrue();
+        String testedOutput = takeOutput();
+        assertThat(expected.isFinished()).isTrue();
+        assertThat(testedOutput).isEqualTo(takeOutput()).isEqualTo(String.format("It's a draw%n"));
+    }
+
+    private String takeOutput() {
+        String text = output.toString();
+        output.reset();
+        return text;
+    }
+}
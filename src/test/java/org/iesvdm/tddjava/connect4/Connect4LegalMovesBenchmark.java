@@ -0,0 +1,90 @@
+package org.iesvdm.tddjava.connect4;
+
+import java.util.Random;
+
+/**
+ * Times the per-turn queries of a game loop, whether the game is over and
+ * which columns can be played, against scanning the board cell by cell as
+ * {@code Connect4} used to. Run its main method; it is not a test.
+ */
+public class Connect4LegalMovesBenchmark {
+
+    private static final int POSITIONS = 1000;
+
+    private static final int ROUNDS = 2000;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        Connect4[] games = new Connect4[POSITIONS];
+        Connect4.Color[][][] boards = new Connect4.Color[POSITIONS][][];
+        for (int i = 0; i < POSITIONS; i++) {
+            games[i] = new Connect4(Connect4Renderer.NULL);
+            int moves = random.nextInt(BitBoard.SIZE);
+            while (games[i].getSnapshot().getMoves() < moves && !games[i].isFinished()) {
+                games[i].putDisc(1 + random.nextInt(Connect4.COLUMNS));
+            }
+            boards[i] = toColors(games[i].getSnapshot());
+        }
+
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            long check = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check += scanLegalMoves(boards[i]) + (isWon(games[i]) || scanIsFull(boards[i]) ? 1 : 0);
+                }
+            }
+            long scan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < POSITIONS; i++) {
+                    check -= games[i].legalMoves() + (games[i].isFinished() ? 1 : 0);
+                }
+            }
+            long heights = System.nanoTime() - start;
+
+            long queries = (long) ROUNDS * POSITIONS;
+            System.out.printf("scan %.1f ns, heights %.1f ns per turn (%d)%n",
+                    (double) scan / queries, (double) heights / queries, check);
+        }
+    }
+
+    private static boolean isWon(Connect4 game) {
+        return game.getWinner() != null;
+    }
+
+    private static Connect4.Color[][] toColors(BoardSnapshot snapshot) {
+        Connect4.Color[][] board = new Connect4.Color[Connect4.COLUMNS][Connect4.ROWS];
+        for (int column = 0; column < Connect4.COLUMNS; column++) {
+            for (int row = 0; row < Connect4.ROWS; row++) {
+                board[column][row] = snapshot.getColorAt(column, row);
+            }
+        }
+        return board;
+    }
+
+    private static int scanHeight(Connect4.Color[][] board, int column) {
+        int row;
+        for (row = 0; row < Connect4.ROWS; row++) {
+            if (Connect4.Color.EMPTY == board[column][row]) return row;
+        }
+        return row;
+    }
+
+    private static int scanLegalMoves(Connect4.Color[][] board) {
+        int columns = 0;
+        for (int column = 0; column < Connect4.COLUMNS; column++) {
+            if (scanHeight(board, column) < Connect4.ROWS) columns |= 1 << column;
+        }
+        return columns;
+    }
+
+    private static boolean scanIsFull(Connect4.Color[][] board) {
+        int discs = 0;
+        for (int column = 0; column < Connect4.COLUMNS; column++) {
+            discs += scanHeight(board, column);
+        }
+        return discs >= Connect4.COLUMNS * Connect4.ROWS;
+    }
+}
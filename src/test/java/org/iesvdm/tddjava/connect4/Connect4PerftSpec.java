@@ -0,0 +1,71 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Connect4PerftSpec {
+
+    private static final int DEPTH = 7;
+
+    @Test
+    public void whenCountingFromTheEmptyBoardThenBitBoardMatchesTheKnownCounts() {
+        checkKnownCounts(Connect4Perft::bitBoard);
+    }
+
+    @Test
+    public void whenCountingFromTheEmptyBoardThenConnect4MatchesTheKnownCounts() {
+        checkKnownCounts(Connect4Perft::connect4);
+    }
+
+    @Test
+    public void whenCountingFromTheEmptyBoardThenConnectNGameMatchesTheKnownCounts() {
+        checkKnownCounts(Connect4Perft::connectN);
+    }
+
+    @Test
+    public void whenCountingFromAGamePositionThenAllBackendsAgree() {
+        Connect4 game = new Connect4(Connect4Renderer.NULL);
+        for (int column : new int[]{4, 4, 4, 3, 5, 6, 1, 1, 1, 1, 1, 1}) {
+            game.putDisc(column);
+        }
+        BitBoard root = game.getPosition();
+
+        long expected = new Connect4Perft(Connect4Perft::bitBoard, 1).count(root, 6);
+
+        assertThat(expected).isPositive();
+        assertThat(new Connect4Perft(Connect4Perft::connect4, 3).count(root, 6)).isEqualTo(expected);
+        assertThat(new Connect4Perft(Connect4Perft::connectN, 3).count(root, 6)).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenTheGameIsWonThenThereAreNoMorePositions() {
+        BitBoard root = new BitBoard();
+        for (int column : new int[]{0, 1, 0, 1, 0, 1, 0}) {
+            root.play(column);
+        }
+        Connect4Perft tested = new Connect4Perft(Connect4Perft::bitBoard, 2);
+
+        assertThat(tested.count(root, 0)).isOne();
+        assertThat(tested.count(root, 3)).isZero();
+    }
+
+    @Test
+    public void whenCountIsDoneThenThroughputIsReported() {
+        Connect4Perft tested = new Connect4Perft(Connect4Perft::bitBoard, 2);
+
+        tested.count(DEPTH);
+
+        assertThat(tested.getNodeCount()).isEqualTo(Connect4Perft.EMPTY_BOARD_COUNTS[DEPTH]);
+        assertThat(tested.getNodesPerSecond()).isPositive();
+    }
+
+    private void checkKnownCounts(Supplier<Connect4Perft.Backend> backends) {
+        Connect4Perft tested = new Connect4Perft(backends, 2);
+        for (int depth = 0; depth <= DEPTH; depth++) {
+            assertThat(tested.count(depth)).isEqualTo(Connect4Perft.EMPTY_BOARD_COUNTS[depth]);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Connect4RendererSpec {
+
+    // Rojo gana en vertical en la columna 1 en la séptima jugada
+    private static final int[] RED_WINS = {1, 2, 1, 2, 1, 2, 1};
+
+    private PrintStream originalOut;
+
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        originalOut = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+    }
+
+    @AfterEach
+    public void afterEachTest() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void whenNullRendererThenNothingIsPrinted() {
+        Connect4 tested = new Connect4(Connect4Renderer.NULL);
+        play(tested, RED_WINS);
+        tested.putDisc(0);
+
+        assertThat(tested.isFinished()).isTrue();
+        assertThat(output.toString()).isEmpty();
+    }
+
+    @Test
+    public void whenBufferedRendererThenTextIsTheSameAsTheConsole() {
+        play(new Connect4(), RED_WINS);
+        BufferedTextRenderer renderer = new BufferedTextRenderer();
+        play(new Connect4(renderer), RED_WINS);
+
+        assertThat(renderer.getText()).isEqualTo(output.toString());
+    }
+
+    @Test
+    public void whenBufferedRendererIsFlushedThenTextIsWrittenOnce() {
+        BufferedTextRenderer renderer = new BufferedTextRenderer();
+        play(new Connect4(renderer), 1, 2);
+        String text = renderer.getText();
+
+        renderer.flushTo(System.out);
+
+        assertThat(output.toString()).isEqualTo(text);
+        assertThat(renderer.getText()).isEmpty();
+    }
+
+    @Test
+    public void whenRenderingEveryTwoMovesThenOnlyEvenMovesAreShown() {
+        BufferedTextRenderer renderer = new BufferedTextRenderer();
+        play(new Connect4(new ThrottledRenderer(renderer, 2)), 1, 2, 3);
+
+        String expected = """
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                |R|G| | | | | |
+                Current turn: R
+                """.replace("\n", System.lineSeparator());
+        assertThat(renderer.getText()).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenRenderingAtGameEndThenOnlyTheFinalBoardIsShown() {
+        BufferedTextRenderer renderer = new BufferedTextRenderer();
+        play(new Connect4(ThrottledRenderer.atGameEnd(renderer)), RED_WINS);
+
+        String expected = """
+                | | | | | | | |
+                | | | | | | | |
+                |R| | | | | | |
+                |R|G| | | | | |
+                |R|G| | | | | |
+                |R|G| | | | | |
+                R wins
+                Current turn: G
+                """.replace("\n", System.lineSeparator());
+        assertThat(renderer.getText()).isEqualTo(expected);
+    }
+
+    @Test
+    public void whenSnapshotIsRequestedThenCurrentBoardIsRendered() {
+        SnapshotRenderer renderer = new SnapshotRenderer();
+        Connect4 tested = new Connect4(renderer);
+        play(tested, 4);
+
+        assertThat(renderer.render()).isEqualTo("""
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                | | | | | | | |
+                | | | |R| | | |
+                """.replace("\n", System.lineSeparator()));
+
+        play(tested, 1, 4, 1, 4, 1, 4);
+        assertThat(renderer.render()).endsWith("R wins" + System.lineSeparator());
+        assertThat(output.toString()).isEmpty();
+    }
+
+    @Test
+    public void whenWinningMoveIsUndoneThenSnapshotNoLongerShowsTheWinner() {
+        SnapshotRenderer renderer = new SnapshotRenderer();
+        Connect4 tested = new Connect4(renderer);
+        play(tested, RED_WINS);
+        SnapshotRenderer beforeWin = new SnapshotRenderer();
+        play(new Connect4(beforeWin), 1, 2, 1, 2, 1, 2);
+
+        tested.undo();
+
+        assertThat(renderer.render()).isEqualTo(beforeWin.render()).doesNotContain("wins");
+    }
+
+    private void play(Connect4 game, int... columns) {
+        for (int column : columns) {
+            game.putDisc(column);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Connect4SimulatorSpec {
+
+    private static final int GAMES = 20000;
+
+    @Test
+    public void whenRandomGamesAreSimulatedThenEveryGameIsCounted() {
+        SimulationStats stats = new Connect4Simulator(Connect4Policy.RANDOM, Connect4Policy.RANDOM, 3).run(GAMES, 1);
+
+        assertThat(stats.getGames()).isEqualTo(GAMES);
+        assertThat(stats.getWins(0) + stats.getWins(1) + stats.getDraws()).isEqualTo(GAMES);
+        long byFirstMove = 0;
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            byFirstMove += stats.getGames(column);
+        }
+        assertThat(byFirstMove).isEqualTo(GAMES);
+        long[] histogram = stats.getLengthHistogram();
+        long byLength = 0;
+        for (int length = 0; length < histogram.length; length++) {
+            if (length < 2 * Connect4.DISCS_FOR_WIN - 1) assertThat(histogram[length]).isZero();
+            byLength += histogram[length];
+        }
+        assertThat(byLength).isEqualTo(GAMES);
+        assertThat(stats.getGamesPerSecond()).isPositive();
+    }
+
+    @Test
+    public void whenPlayingRandomlyThenFirstPlayerHasTheAdvantage() {
+        SimulationStats stats = new Connect4Simulator(Connect4Policy.RANDOM, Connect4Policy.RANDOM, 2).run(GAMES, 2);
+
+        assertThat(stats.getFirstPlayerAdvantage()).isPositive();
+        assertThat(stats.getAverageLength()).isBetween(7.0, 42.0);
+    }
+
+    @Test
+    public void whenTheSameSeedIsUsedThenResultsAreTheSame() {
+        SimulationStats first = new Connect4Simulator(Connect4Policy.RANDOM, Connect4Policy.RANDOM, 4).run(GAMES, 3);
+        SimulationStats second = new Connect4Simulator(Connect4Policy.RANDOM, Connect4Policy.RANDOM, 4).run(GAMES, 3);
+
+        assertThat(first.getWins(0)).isEqualTo(second.getWins(0));
+        assertThat(first.getLengthHistogram()).isEqualTo(second.getLengthHistogram());
+    }
+
+    @Test
+    public void whenPoliciesStackTheirOwnColumnThenFirstPlayerAlwaysWinsOnTheSeventhDisc() {
+        Connect4Policy first = (position, random) -> 0;
+        Connect4Policy second = (position, random) -> 1;
+
+        SimulationStats stats = new Connect4Simulator(first, second, 2).run(100, 4);
+
+        assertThat(stats.getWins(0, 0)).isEqualTo(100);
+        assertThat(stats.getWinRate(0, 0)).isEqualTo(1.0);
+        assertThat(stats.getLengthHistogram()[7]).isEqualTo(100);
+    }
+}
@@ -0,0 +1,100 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Connect4SolverSpec {
+
+    private Connect4Solver tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new Connect4Solver();
+    }
+
+    @Test
+    public void whenPlayerCanWinNowThenScoreIsTheHighestForThatMove() {
+        BitBoard position = play(0, 1, 0, 1, 0, 1);
+
+        // Rojo gana con su cuarto disco: le quedan 21 - 4 = 17 en la mano, más uno
+        assertThat(tested.solve(position)).isEqualTo(18);
+        assertThat(tested.bestMove(position)).isZero();
+    }
+
+    @Test
+    public void whenLastMoveWonThenPlayerToMoveHasLost() {
+        BitBoard position = play(0, 1, 0, 1, 0, 1, 0);
+
+        assertThat(tested.solve(position)).isEqualTo(-18);
+        assertThat(tested.bestMove(position)).isEqualTo(-1);
+    }
+
+    @Test
+    public void whenOpponentThreatensToWinThenBestMoveBlocksIt() {
+        BitBoard position = play(3, 0, 3, 0, 3);
+
+        assertThat(tested.bestMove(position)).isEqualTo(3);
+    }
+
+    @Test
+    public void whenLatePositionsAreSolvedThenScoreMatchesAFullMinimax() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            BitBoard position = randomPosition(random, 28 + random.nextInt(8));
+            tested.reset();
+
+            assertThat(tested.solve(position)).isEqualTo(minimax(position));
+        }
+    }
+
+    @Test
+    public void whenAMidGamePositionIsSolvedThenNodesAreReported() {
+        BitBoard position = play(3, 3, 3, 3, 2, 4, 1, 2, 4, 4, 0, 0, 6, 6);
+
+        int score = tested.solve(position);
+
+        assertThat(score).isBetween(Connect4Solver.MIN_SCORE, Connect4Solver.MAX_SCORE);
+        assertThat(tested.getNodeCount()).isPositive();
+        assertThat(tested.getNodesPerSecond()).isPositive();
+        int move = tested.bestMove(position);
+        BitBoard child = position.copy();
+        child.play(move);
+        assertThat(-tested.solve(child)).isEqualTo(score);
+    }
+
+    private BitBoard play(int... columns) {
+        BitBoard position = new BitBoard();
+        for (int column : columns) {
+            position.play(column);
+        }
+        return position;
+    }
+
+    private BitBoard randomPosition(Random random, int moves) {
+        while (true) {
+            BitBoard position = new BitBoard();
+            while (position.getMoves() < moves && !position.isLastMoveWinning()) {
+                int column = random.nextInt(BitBoard.COLUMNS);
+                if (position.canPlay(column)) position.play(column);
+            }
+            if (!position.isLastMoveWinning()) return position;
+        }
+    }
+
+    private int minimax(BitBoard position) {
+        if (position.isLastMoveWinning()) return -(BitBoard.SIZE + 2 - position.getMoves()) / 2;
+        if (position.isFull()) return 0;
+        int best = Integer.MIN_VALUE;
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            if (!position.canPlay(column)) continue;
+            BitBoard child = position.copy();
+            child.play(column);
+            best = Math.max(best, -minimax(child));
+        }
+        return best;
+    }
+}
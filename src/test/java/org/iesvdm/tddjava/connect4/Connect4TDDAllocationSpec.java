@@ -0,0 +1,51 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Connect4TDDAllocationSpec {
+
+    private static final int GAMES = 1000;
+
+    private final PrintStream output = new PrintStream(OutputStream.nullOutputStream());
+
+    @Test
+    public void whenDiscsArePutThenNothingIsAllocated() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) return;
+
+        // Primera pasada para que las clases estén cargadas antes de medir
+        playGames(newGames());
+
+        Connect4TDD[] games = newGames();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        playGames(games);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(allocated).isZero();
+    }
+
+    private Connect4TDD[] newGames() {
+        Connect4TDD[] games = new Connect4TDD[GAMES];
+        for (int i = 0; i < GAMES; i++) {
+            games[i] = new Connect4TDD(output);
+        }
+        return games;
+    }
+
+    private void playGames(Connect4TDD[] games) {
+        for (Connect4TDD game : games) {
+            // Llena el tablero entero desplazando una columna a mitad de cada una
+            for (int column = 0; column < 7; column++) {
+                for (int row = 0; row < 6; row++) {
+                    game.putDiscInColumn((column + row / 3) % 7);
+                }
+            }
+        }
+    }
+}
@@ -365,6 +365,17 @@ public class Connect4TDDSpec {
 
     }
 
+    @Test
+    public void whenTurnsAreNotAnnouncedAskingForCurrentPlayerPrintsNothing() {
+
+        tested = new Connect4TDD(new ConsoleListener(new PrintStream(output), false));
+
+        tested.getCurrentPlayer();
+
+        assertThat(output.toString()).isEmpty();
+
+    }
+
     @Test
     public void whenADiscIsIntroducedTheBoardIsPrinted() {
 
@@ -541,6 +552,28 @@ public class Connect4TDDSpec {
 
     }
 
+    @Test
+    public void whenAColumnIsFilledItIsNoLongerALegalMove() {
+
+        assertThat(tested.legalMoves()).isEqualTo(0b1111111);
+
+        // Llenamos la columna 2
+        for (int row = 0; row < 6; row++) {
+            tested.putDiscInColumn(2);
+        }
+
+        assertThat(tested.legalMoves()).isEqualTo(0b1111011);
+
+        // Partida completa en la que nadie conecta 4
+        tested = new Connect4TDD(new PrintStream(output));
+        for (char column : "506440352334606314153223024122555006661114".toCharArray()) {
+            tested.putDiscInColumn(column - '0');
+        }
+
+        assertThat(tested.legalMoves()).isZero();
+        assertThat(tested.isFinished()).isTrue();
+    }
+
     /*
      * If a player inserts a disc and connects more than 3 discs of his colour
      * in a straight vertical line then that player wins
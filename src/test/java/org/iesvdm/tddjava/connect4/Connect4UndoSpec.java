@@ -0,0 +1,147 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class Connect4UndoSpec {
+
+    private Connect4 tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new Connect4(Connect4Renderer.NULL);
+    }
+
+    @Test
+    public void whenNoDiscWasPutThenUndoFails() {
+        assertThatThrownBy(() -> tested.undo()).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void whenDiscIsTakenBackThenPlayerToMoveIsRestored() {
+        tested.putDisc(4);
+
+        assertThat(tested.undo()).isEqualTo(4);
+        assertThat(tested.getCurrentPlayer()).isEqualTo(Connect4.Color.RED);
+        assertThat(tested.getPosition().getMoves()).isZero();
+    }
+
+    @Test
+    public void whenWinningDiscIsTakenBackThenThereIsNoWinner() {
+        for (int column : new int[]{1, 2, 1, 2, 1, 2, 1}) {
+            tested.putDisc(column);
+        }
+        assertThat(tested.getWinner()).isEqualTo(Connect4.Color.RED);
+
+        tested.unmakeMove(1);
+
+        assertThat(tested.getWinner()).isNull();
+        assertThat(tested.isFinished()).isFalse();
+        assertThat(tested.getCurrentPlayer()).isEqualTo(Connect4.Color.RED);
+    }
+
+    @Test
+    public void whenUnmakingAnotherColumnThenItFails() {
+        tested.putDisc(3);
+
+        assertThatThrownBy(() -> tested.unmakeMove(4)).isInstanceOf(RuntimeException.class);
+        assertThat(tested.getPosition().getMoves()).isOne();
+    }
+
+    @Test
+    public void whenAFullColumnIsTakenBackThenItIsLegalAgain() {
+        for (int row = 0; row < Connect4.ROWS; row++) {
+            tested.putDisc(1);
+        }
+        assertThat(tested.legalMoves()).isEqualTo(0b1111110);
+
+        tested.undo();
+
+        assertThat(tested.legalMoves()).isEqualTo(0b1111111);
+    }
+
+    @Test
+    public void whenRandomMovesAreMadeAndUnmadeThenStateReturnsToTheStart() {
+        Random random = new Random(13);
+        for (int round = 0; round < 200; round++) {
+            tested = new Connect4(Connect4Renderer.NULL);
+            Deque<State> states = new ArrayDeque<>();
+            Deque<Integer> columns = new ArrayDeque<>();
+            for (int step = 0; step < 200; step++) {
+                if (!columns.isEmpty() && (random.nextInt(3) == 0 || tested.getPosition().isFull())) {
+                    tested.unmakeMove(columns.pop());
+                    assertThat(new State(tested)).isEqualTo(states.pop());
+                } else {
+                    int column = 1 + random.nextInt(Connect4.COLUMNS);
+                    if (!tested.getPosition().canPlay(column - 1)) continue;
+                    states.push(new State(tested));
+                    columns.push(column);
+                    tested.putDisc(column);
+                }
+            }
+            while (!columns.isEmpty()) {
+                tested.unmakeMove(columns.pop());
+                assertThat(new State(tested)).isEqualTo(states.pop());
+            }
+            assertThat(new State(tested)).isEqualTo(new State(new Connect4(Connect4Renderer.NULL)));
+        }
+    }
+
+    private static class State {
+
+        private final long red;
+
+        private final long green;
+
+        private final int lastColumn;
+
+        private final boolean lastMoveWinning;
+
+        private final long key;
+
+        private final int legalMoves;
+
+        private final Connect4.Color currentPlayer;
+
+        private final Connect4.Color winner;
+
+        private State(Connect4 game) {
+            BitBoard position = game.getPosition();
+            red = position.getDiscs(0);
+            green = position.getDiscs(1);
+            lastColumn = position.getLastColumn();
+            lastMoveWinning = position.isLastMoveWinning();
+            key = game.positionKey();
+            legalMoves = game.legalMoves();
+            currentPlayer = game.getCurrentPlayer();
+            winner = game.getWinner();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) return false;
+            State other = (State) o;
+            return red == other.red && green == other.green && lastColumn == other.lastColumn
+                    && lastMoveWinning == other.lastMoveWinning && key == other.key
+                    && legalMoves == other.legalMoves
+                    && currentPlayer == other.currentPlayer && winner == other.winner;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(red ^ green);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("State[%x, %x, %d, %s, %s]", red, green, lastColumn, currentPlayer, winner);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConnectNGameSpec {
+
+    @Test
+    public void whenColumnIsOutsideTheBoardThenItCannotBePlayed() {
+        ConnectNGame tested = new ConnectNGame(9, 7, 5);
+
+        assertThat(tested.canPlay(-1)).isFalse();
+        assertThat(tested.canPlay(9)).isFalse();
+        assertThat(tested.canPlay(8)).isTrue();
+    }
+
+    @Test
+    public void whenStandardBoardIsPlayedThenWinsMatchTheBitBoard() {
+        Random random = new Random(19);
+        for (int game = 0; game < 1000; game++) {
+            ConnectNGame tested = ConnectNGame.connect4();
+            BitBoard expected = new BitBoard();
+            while (!expected.isLastMoveWinning() && !expected.isFull()) {
+                int column = random.nextInt(BitBoard.COLUMNS);
+                if (!expected.canPlay(column)) continue;
+
+                assertThat(tested.play(column)).isEqualTo(expected.play(column));
+                assertThat(tested.isLastMoveWinning()).isEqualTo(expected.isLastMoveWinning());
+            }
+            assertThat(tested.isFull()).isEqualTo(expected.isFull());
+        }
+    }
+
+    @Test
+    public void when5HorizontalDiscsAreConnectedOnA9x7BoardThenLastMoveWins() {
+        ConnectNGame tested = new ConnectNGame(9, 7, 5);
+        for (int column = 2; column < 6; column++) {
+            tested.play(column);
+            tested.play(column);
+        }
+        assertThat(tested.isLastMoveWinning()).isFalse();
+
+        tested.play(6);
+
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void when4InARowOnA9x7Connect5BoardThenNobodyWins() {
+        ConnectNGame tested = new ConnectNGame(9, 7, 5);
+        for (int i = 0; i < 4; i++) {
+            tested.play(0);
+            tested.play(1);
+        }
+
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(0);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+    }
+
+    @Test
+    public void whenSparseAndDenseBoardsPlayTheSameMovesThenTheyAgree() {
+        Random random = new Random(23);
+        int columns = 15;
+        int rows = 10;
+        ConnectNGame dense = new ConnectNGame(new BitArrayBoard(columns, rows), 5);
+        ConnectNGame sparse = new ConnectNGame(new SparseBoard(columns, rows), 5);
+        for (int step = 0; step < 20000; step++) {
+            if (dense.getMoves() > 0 && (random.nextInt(3) == 0 || dense.isFull())) {
+                assertThat(sparse.undo()).isEqualTo(dense.undo());
+            } else {
+                int column = random.nextInt(columns);
+                if (!dense.canPlay(column)) continue;
+                assertThat(sparse.play(column)).isEqualTo(dense.play(column));
+            }
+            assertThat(sparse.isLastMoveWinning()).isEqualTo(dense.isLastMoveWinning());
+            int column = random.nextInt(columns);
+            int row = random.nextInt(rows);
+            assertThat(sparse.getPlayerAt(column, row)).isEqualTo(dense.getPlayerAt(column, row));
+        }
+    }
+
+    @Test
+    public void whenBoardIsHugeThenDiscsAreStoredSparsely() {
+        assertThat(ConnectNGame.createBoard(100_000, 100_000)).isInstanceOf(SparseBoard.class);
+        assertThat(ConnectNGame.createBoard(9, 7)).isInstanceOf(BitArrayBoard.class);
+
+        ConnectNGame tested = new ConnectNGame(100_000, 100_000, 6);
+        for (int i = 0; i < 5; i++) {
+            tested.play(99_999);
+            tested.play(50_000);
+        }
+        assertThat(tested.isLastMoveWinning()).isFalse();
+        tested.play(99_999);
+        assertThat(tested.isLastMoveWinning()).isTrue();
+        assertThat(tested.getPlayerAt(50_000, 4)).isOne();
+        assertThat(tested.getPlayerAt(50_000, 5)).isEqualTo(ConnectNBoard.EMPTY);
+    }
+
+    @Test
+    public void whenColumnIsInvalidOrFullThenRuntimeException() {
+        ConnectNGame tested = new ConnectNGame(3, 2, 3);
+        tested.play(0);
+        tested.play(0);
+
+        assertThatThrownBy(() -> tested.play(0)).isInstanceOf(RuntimeException.class).hasMessage("No more room in column 0");
+        assertThatThrownBy(() -> tested.play(3)).isInstanceOf(RuntimeException.class).hasMessage("Invalid column 3");
+    }
+}
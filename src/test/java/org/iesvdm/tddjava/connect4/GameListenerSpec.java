@@ -0,0 +1,155 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GameListenerSpec {
+
+    @Test
+    public void whenDiscsArePutThenMovesAndTurnsAreNotified() {
+        RecordingListener listener = new RecordingListener();
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        tested.putDiscInColumn(3);
+        tested.putDiscInColumn(4);
+
+        assertThat(listener.events).containsExactly("move R 3 0", "turn G", "move G 4 0", "turn R");
+    }
+
+    @Test
+    public void whenAskedForCurrentPlayerThenOnlyTheQueryIsNotified() {
+        RecordingListener listener = new RecordingListener();
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        assertThat(tested.getCurrentPlayer()).isEqualTo("R");
+
+        assertThat(listener.events).containsExactly("asked R");
+    }
+
+    @Test
+    public void whenFourAreConnectedThenTheWinIsNotifiedOnce() {
+        RecordingListener listener = new RecordingListener();
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        for (int column : new int[]{0, 1, 0, 1, 0, 1, 0, 1}) {
+            tested.putDiscInColumn(column);
+        }
+
+        assertThat(listener.events.stream().filter(event -> event.startsWith("win")).toList())
+                .containsExactly("win R");
+    }
+
+    @Test
+    public void whenTheBoardIsFullWithoutWinnerThenTheDrawIsNotified() {
+        RecordingListener listener = new RecordingListener();
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        // Partida completa en la que nadie conecta 4
+        for (char column : "506440352334606314153223024122555006661114".toCharArray()) {
+            tested.putDiscInColumn(column - '0');
+        }
+
+        assertThat(tested.getWinner()).isEmpty();
+        assertThat(listener.events.get(listener.events.size() - 2)).isEqualTo("draw");
+    }
+
+    @Test
+    public void whenEventsAreDeliveredAsynchronouslyThenTheOutputIsTheSame() {
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        ByteArrayOutputStream async = new ByteArrayOutputStream();
+        Connect4TDD expected = new Connect4TDD(new ConsoleListener(new PrintStream(direct), true));
+        AsyncBatchingListener listener = new AsyncBatchingListener(new ConsoleListener(new PrintStream(async), true));
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        for (int move = 0; move < 30; move++) {
+            expected.putDiscInColumn(move % 7);
+            tested.putDiscInColumn(move % 7);
+        }
+        listener.close();
+
+        assertThat(async.toString()).isEqualTo(direct.toString());
+    }
+
+    @Test
+    public void whenTheRingIsSmallThenEveryEventIsStillDeliveredInOrder() {
+        RecordingListener expected = new RecordingListener();
+        RecordingListener delivered = new RecordingListener();
+        Connect4TDD direct = new Connect4TDD(expected);
+        AsyncBatchingListener listener = new AsyncBatchingListener(delivered, 2);
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        for (char column : "506440352334606314153223024122555006661114".toCharArray()) {
+            direct.putDiscInColumn(column - '0');
+            tested.putDiscInColumn(column - '0');
+        }
+        listener.close();
+
+        assertThat(delivered.events).isEqualTo(expected.events);
+    }
+
+    @Test
+    public void whenTheListenerThrowsThenLaterEventsAreStillDeliveredAndCloseReportsIt() {
+        RecordingListener delivered = new RecordingListener() {
+            @Override
+            public void onTurnChange(String player) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        AsyncBatchingListener listener = new AsyncBatchingListener(delivered);
+        Connect4TDD tested = new Connect4TDD(listener);
+
+        tested.putDiscInColumn(3);
+        tested.putDiscInColumn(4);
+
+        assertThatThrownBy(listener::close).isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("failed 2 times");
+        assertThat(listener.getFailures()).isEqualTo(2L);
+        assertThat(delivered.events).containsExactly("move R 3 0", "move G 4 0");
+    }
+
+    @Test
+    public void whenTheListenerIsClosedThenEventsAreRejected() {
+        AsyncBatchingListener listener = new AsyncBatchingListener(GameListener.NONE);
+        listener.close();
+
+        assertThatThrownBy(() -> listener.onDraw()).isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("closed");
+    }
+
+    private static class RecordingListener implements GameListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onMove(String player, int column, int row) {
+            events.add(String.format("move %s %d %d", player, column, row));
+        }
+
+        @Override
+        public void onWin(String player) {
+            events.add("win " + player);
+        }
+
+        @Override
+        public void onDraw() {
+            events.add("draw");
+        }
+
+        @Override
+        public void onTurnChange(String player) {
+            events.add("turn " + player);
+        }
+
+        @Override
+        public void onTurnQueried(String player) {
+            events.add("asked " + player);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameLogAnalyzerSpec {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private Path file;
+
+    private GameLogAnalyzer tested;
+
+    @BeforeEach
+    public void beforeEachTest() throws IOException {
+        file = Files.createTempFile("connect4", ".log");
+        tested = new GameLogAnalyzer(3, CHUNK_SIZE);
+    }
+
+    @AfterEach
+    public void afterEachTest() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void whenGamesAreWonThenWinnersAreCountedByFirstMove() throws IOException {
+        SimulationStats stats = analyzeFile("1212121\n4343434\n12121232\n");
+
+        assertThat(stats.getGames()).isEqualTo(3);
+        assertThat(stats.getWins(0, 0)).isOne();
+        assertThat(stats.getWins(0, 3)).isOne();
+        assertThat(stats.getWins(1, 0)).isOne();
+        assertThat(stats.getLengthHistogram()[8]).isEqualTo(1L);
+    }
+
+    @Test
+    public void whenLinesAreNotValidGamesThenTheyAreLeftOut() throws IOException {
+        SimulationStats stats = analyzeFile("1111111\n12121212\n4x4\n1212121\n\n44\r\n1212121");
+
+        assertThat(stats.getGames()).isEqualTo(2);
+        assertThat(tested.getInvalidGames()).isEqualTo(3);
+        assertThat(tested.getUnfinishedGames()).isOne();
+    }
+
+    @Test
+    public void whenLogIsSplitInChunksThenTheStatsMatchASingleReplay() throws IOException {
+        StringBuilder log = new StringBuilder();
+        SimulationStats expected = new SimulationStats();
+        SplittableRandom random = new SplittableRandom(5);
+        BitBoard board = new BitBoard();
+        for (int game = 0; game < 2000; game++) {
+            board.reset();
+            while (!board.isLastMoveWinning() && !board.isFull()) {
+                board.play(Connect4Policy.RANDOM.chooseColumn(board, random));
+                log.append(board.getLastColumn() + 1);
+            }
+            log.append(game % 2 == 0 ? "\n" : "\r\n");
+            int winner = board.isLastMoveWinning() ? 1 - board.getCurrentPlayer() : SimulationStats.DRAW;
+            expected.record(board.getColumn(0), winner, board.getMoves());
+        }
+
+        SimulationStats fromFile = analyzeFile(log.toString());
+        SimulationStats fromStream = tested.analyze(
+                new ByteArrayInputStream(log.toString().getBytes(StandardCharsets.US_ASCII)));
+
+        for (SimulationStats stats : new SimulationStats[]{fromFile, fromStream}) {
+            assertThat(stats.getGames()).isEqualTo(expected.getGames());
+            assertThat(stats.getLengthHistogram()).isEqualTo(expected.getLengthHistogram());
+            for (int column = 0; column < BitBoard.COLUMNS; column++) {
+                assertThat(stats.getWins(0, column)).isEqualTo(expected.getWins(0, column));
+                assertThat(stats.getWins(1, column)).isEqualTo(expected.getWins(1, column));
+                assertThat(stats.getDraws(column)).isEqualTo(expected.getDraws(column));
+            }
+        }
+        assertThat(tested.getInvalidGames()).isZero();
+    }
+
+    @Test
+    public void whenALineIsLongerThanAChunkThenItIsInvalid() throws IOException {
+        String log = "1212121\n" + "1234567".repeat(30) + "\n4343434\n";
+
+        SimulationStats stats = tested.analyze(new ByteArrayInputStream(log.getBytes(StandardCharsets.US_ASCII)));
+
+        assertThat(stats.getGames()).isEqualTo(2);
+        assertThat(tested.getInvalidGames()).isOne();
+        assertThat(analyzeFile(log).getGames()).isEqualTo(2);
+        assertThat(tested.getInvalidGames()).isOne();
+    }
+
+    @Test
+    public void whenLogIsEmptyThenThereAreNoGames() throws IOException {
+        assertThat(analyzeFile("").getGames()).isZero();
+    }
+
+    private SimulationStats analyzeFile(String log) throws IOException {
+        Files.writeString(file, log, StandardCharsets.US_ASCII);
+        return tested.analyze(file);
+    }
+}
@@ -0,0 +1,160 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GameRecordSpec {
+
+    private ReplayEngine engine;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        engine = new ReplayEngine();
+    }
+
+    @Test
+    public void whenAGameIsRecordedThenMovesAndResultAreKept() {
+        BitBoard board = play(0, 1, 0, 1, 0, 1, 0);
+
+        GameRecord tested = GameRecord.of(board);
+
+        assertThat(tested.getMoveCount()).isEqualTo(7);
+        assertThat(tested.getMove(5)).isOne();
+        assertThat(tested.getResult()).isEqualTo(GameRecord.Result.FIRST_PLAYER_WINS);
+    }
+
+    @Test
+    public void whenRecordsAreWrittenThenTheyAreReadBackInOrder() throws IOException {
+        List<BitBoard> games = randomGames(2000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            for (BitBoard game : games) {
+                writer.write(GameRecord.of(game));
+            }
+        }
+
+        GameRecord record = new GameRecord();
+        try (GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            for (BitBoard game : games) {
+                assertThat(reader.next(record)).isTrue();
+                assertThat(record.getMoveCount()).isEqualTo(game.getMoves());
+                assertThat(record.getResult()).isEqualTo(GameRecord.resultOf(game));
+                for (int move = 0; move < game.getMoves(); move++) {
+                    assertThat(record.getMove(move)).isEqualTo(game.getColumn(move));
+                }
+            }
+            assertThat(reader.next(record)).isFalse();
+        }
+    }
+
+    @Test
+    public void whenRecordIsCorruptThenReadingFails() {
+        byte[] bytes = new byte[16];
+        GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+
+        assertThatThrownBy(() -> reader.next(new GameRecord())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void whenFastForwardingThenBoardHasTheFirstMoves() {
+        BitBoard game = randomGames(1).get(0);
+        GameRecord record = GameRecord.of(game);
+        int moves = game.getMoves() / 2;
+
+        BitBoard board = engine.fastForward(record, moves);
+
+        BitBoard expected = game.copy();
+        while (expected.getMoves() > moves) {
+            expected.undo();
+        }
+        assertThat(board.getKey()).isEqualTo(expected.getKey());
+        assertThat(board.getMoves()).isEqualTo(moves);
+    }
+
+    @Test
+    public void whenColumnIsOutsideTheBoardThenItIsNotRecorded() {
+        GameRecord record = new GameRecord();
+
+        assertThatThrownBy(() -> record.addMove(-1)).hasMessageContaining("Invalid column -1");
+        assertThatThrownBy(() -> record.addMove(BitBoard.COLUMNS)).hasMessageContaining("Invalid column 7");
+        assertThat(record.getMoveCount()).isZero();
+    }
+
+    @Test
+    public void whenFastForwardingACorruptRecordThenItFails() {
+        GameRecord outside = new GameRecord();
+        outside.addMove(3);
+        outside.addMove(3);
+        // Como lo dejaría un lector con datos dañados: la segunda jugada en la columna 7
+        outside.setWord(0, 3 | 7L << 3);
+        GameRecord fullColumn = new GameRecord();
+        for (int move = 0; move <= BitBoard.ROWS; move++) {
+            fullColumn.addMove(2);
+        }
+
+        assertThatThrownBy(() -> engine.fastForward(outside, 2)).hasMessageContaining("Corrupt record");
+        assertThatThrownBy(() -> engine.fastForward(fullColumn, BitBoard.ROWS + 1))
+                .hasMessageContaining("Corrupt record");
+    }
+
+    @Test
+    public void whenRecordsAreValidatedThenWrongOnesAreFound() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            for (BitBoard game : randomGames(1000)) {
+                writer.write(GameRecord.of(game));
+            }
+            GameRecord wrongResult = GameRecord.of(play(0, 1, 0, 1, 0, 1, 0));
+            wrongResult.setResult(GameRecord.Result.DRAW);
+            writer.write(wrongResult);
+            GameRecord fullColumn = new GameRecord();
+            for (int move = 0; move < 7; move++) {
+                fullColumn.addMove(2);
+            }
+            writer.write(fullColumn);
+            GameRecord afterWin = GameRecord.of(play(0, 1, 0, 1, 0, 1, 0));
+            afterWin.addMove(3);
+            writer.write(afterWin);
+        }
+
+        long invalid = engine.validateAll(new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        assertThat(invalid).isEqualTo(3);
+        assertThat(engine.getRecordsValidated()).isEqualTo(1003);
+    }
+
+    private BitBoard play(int... columns) {
+        BitBoard board = new BitBoard();
+        for (int column : columns) {
+            board.play(column);
+        }
+        return board;
+    }
+
+    private List<BitBoard> randomGames(int count) {
+        Random random = new Random(17);
+        List<BitBoard> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BitBoard board = new BitBoard();
+            // Algunas partidas se quedan a medias para probar también UNFINISHED
+            int length = random.nextInt(4) == 0 ? random.nextInt(BitBoard.SIZE) : BitBoard.SIZE;
+            while (board.getMoves() < length && !board.isLastMoveWinning()) {
+                int column = random.nextInt(BitBoard.COLUMNS);
+                if (board.canPlay(column)) board.play(column);
+            }
+            games.add(board);
+        }
+        return games;
+    }
+}
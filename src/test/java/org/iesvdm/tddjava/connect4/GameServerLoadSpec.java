@@ -0,0 +1,71 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load driver for {@link GameServer}: one client per session, each playing
+ * a whole game move by move, measuring throughput and latency. The spec
+ * runs a small load; its main method runs a bigger one and prints the
+ * figures.
+ */
+public class GameServerLoadSpec {
+
+    private static final int SESSIONS = 200;
+
+    @Test
+    public void whenManyClientsPlayWholeGamesThenEveryMoveIsMeasured() {
+        Load load = drive(SESSIONS);
+
+        assertThat(load.moves()).isEqualTo(SESSIONS * BitBoard.SIZE);
+        assertThat(load.movesPerSecond()).isGreaterThan(0.0);
+        assertThat(load.p99Nanos()).isGreaterThanOrEqualTo(load.p50Nanos());
+        // Muy generoso: sólo falla si algún movimiento queda atascado
+        assertThat(load.p99Nanos()).isLessThan(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public static void main(String[] args) {
+        Load load = drive(args.length > 0 ? Integer.parseInt(args[0]) : 2_000);
+        System.out.printf("%d moves, %.0f moves/s, p50 %d us, p99 %d us%n", load.moves(), load.movesPerSecond(),
+                load.p50Nanos() / 1000, load.p99Nanos() / 1000);
+    }
+
+    private static Load drive(int sessions) {
+        int moves = BitBoard.SIZE;
+        try (GameServer server = new GameServer(1, TimeUnit.HOURS)) {
+            long[] ids = new long[sessions];
+            for (int i = 0; i < sessions; i++) {
+                ids[i] = server.createSession();
+            }
+            long[] latencies = new long[sessions * moves];
+
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < sessions; i++) {
+                    int session = i;
+                    clients.execute(() -> {
+                        for (int move = 0; move < moves; move++) {
+                            long sent = System.nanoTime();
+                            server.putDisc(ids[session], move % BitBoard.COLUMNS).join();
+                            latencies[session * moves + move] = System.nanoTime() - sent;
+                        }
+                    });
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            return new Load(latencies.length, latencies.length * 1e9 / elapsed, latencies[latencies.length / 2],
+                    latencies[latencies.length * 99 / 100]);
+        }
+    }
+
+    private record Load(int moves, double movesPerSecond, long p50Nanos, long p99Nanos) {
+    }
+}
@@ -0,0 +1,145 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GameServerSpec {
+
+    private static final int SESSIONS = 200;
+
+    private GameServer tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new GameServer(1, TimeUnit.HOURS);
+    }
+
+    @AfterEach
+    public void afterEachTest() {
+        tested.close();
+    }
+
+    @Test
+    public void whenDiscsArePutThenTheyStackInTheSession() {
+        long id = tested.createSession();
+
+        assertThat(tested.putDisc(id, 3).join()).isZero();
+        assertThat(tested.putDisc(id, 3).join()).isOne();
+        assertThat(tested.submit(id, Connect4TDD::getNumberOfDiscs).join()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenSessionsAreDifferentThenGamesAreIndependent() {
+        long first = tested.createSession();
+        long second = tested.createSession();
+
+        tested.putDisc(first, 0).join();
+
+        assertThat(tested.putDisc(second, 0).join()).isZero();
+    }
+
+    @Test
+    public void whenMovesArePipelinedThenTheyRunInOrder() {
+        long id = tested.createSession();
+        List<CompletableFuture<Integer>> rows = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            rows.add(tested.putDisc(id, 2));
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            assertThat(rows.get(i).join()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void whenMoveIsInvalidThenTheFutureFails() {
+        long id = tested.createSession();
+
+        assertThatThrownBy(() -> tested.putDisc(id, 9).join())
+                .hasMessageContaining("Invalid column 9");
+    }
+
+    @Test
+    public void whenSessionIsUnknownThenTheFutureFails() {
+        assertThatThrownBy(() -> tested.putDisc(42, 0).join())
+                .hasMessageContaining("Unknown session 42");
+    }
+
+    @Test
+    public void whenSessionsAreIdleThenTheyAreEvicted() {
+        AtomicLong now = new AtomicLong();
+        try (GameServer server = new GameServer(10, TimeUnit.MILLISECONDS, now::get)) {
+            long id = server.createSession();
+            server.putDisc(id, 0).join();
+
+            assertThat(server.evictIdleSessions()).isZero();
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+
+            assertThat(evictIdleSessions(server)).isOne();
+            assertThat(server.getSessionCount()).isZero();
+        }
+    }
+
+    @Test
+    public void whenAnActionThrowsAnErrorThenTheSessionKeepsServing() {
+        AtomicLong now = new AtomicLong();
+        try (GameServer server = new GameServer(10, TimeUnit.MILLISECONDS, now::get)) {
+            long id = server.createSession();
+
+            assertThatThrownBy(() -> server.submit(id, game -> {
+                throw new AssertionError("broken");
+            }).join()).hasMessageContaining("broken");
+
+            assertThat(server.putDisc(id, 0).join()).isZero();
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+            assertThat(evictIdleSessions(server)).isOne();
+        }
+    }
+
+    @Test
+    public void whenManyClientsPlayAtOnceThenEveryMoveIsServed() {
+        long[] ids = new long[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            ids[i] = tested.createSession();
+        }
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SESSIONS; i++) {
+                int session = i;
+                clients.execute(() -> {
+                    for (int move = 0; move < BitBoard.SIZE; move++) {
+                        tested.putDisc(ids[session], move % BitBoard.COLUMNS).join();
+                    }
+                });
+            }
+        }
+
+        for (long id : ids) {
+            assertThat(tested.submit(id, Connect4TDD::getNumberOfDiscs).join()).isEqualTo(BitBoard.SIZE);
+        }
+    }
+
+    /**
+     * A session whose answer was just joined may still be finishing its
+     * turn on the executor, so eviction is retried for a while.
+     */
+    private static int evictIdleSessions(GameServer server) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        int evicted;
+        while ((evicted = server.evictIdleSessions()) == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return evicted;
+    }
+}
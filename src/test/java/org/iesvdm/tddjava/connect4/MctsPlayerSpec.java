@@ -0,0 +1,70 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MctsPlayerSpec {
+
+    private static final long BUDGET_MILLIS = 200;
+
+    private MctsPlayer tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new MctsPlayer(BUDGET_MILLIS, 2);
+    }
+
+    @AfterEach
+    public void afterEachTest() {
+        tested.close();
+    }
+
+    @Test
+    public void whenPlayerCanWinNowThenItPlaysTheWinningMove() {
+        BitBoard position = play(4, 5, 4, 5, 4, 5);
+
+        assertThat(tested.chooseMove(position)).isEqualTo(4);
+    }
+
+    @Test
+    public void whenOpponentCanWinNextThenItBlocks() {
+        BitBoard position = play(1, 4, 2, 4, 3);
+
+        assertThat(tested.chooseMove(position)).isZero();
+    }
+
+    @Test
+    public void whenSearchingThenPlayoutsAreReported() {
+        tested.chooseMove(new BitBoard());
+
+        assertThat(tested.getPlayouts()).isPositive();
+        assertThat(tested.getPlayoutsPerSecond()).isPositive();
+    }
+
+    @Test
+    public void whenTheGameGoesOnThenTheTreeIsReused() {
+        BitBoard position = play(3);
+        position.play(tested.chooseMove(position));
+        position.play(3);
+
+        tested.chooseMove(position);
+
+        assertThat((long) tested.getRootVisits()).isGreaterThan(tested.getPlayouts());
+    }
+
+    @Test
+    public void whenTheGameIsOverThenThereIsNoMove() {
+        assertThat(tested.chooseMove(play(0, 1, 0, 1, 0, 1, 0))).isEqualTo(-1);
+    }
+
+    private BitBoard play(int... columns) {
+        BitBoard position = new BitBoard();
+        for (int column : columns) {
+            position.play(column);
+        }
+        return position;
+    }
+}
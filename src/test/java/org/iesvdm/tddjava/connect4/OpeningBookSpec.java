@@ -0,0 +1,84 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OpeningBookSpec {
+
+    private static final int DEPTH = 3;
+
+    private Path file;
+
+    private BitBoard root;
+
+    @BeforeEach
+    public void beforeEachTest() throws IOException {
+        file = Files.createTempFile("connect4", ".book");
+        root = new BitBoard();
+        for (int column : new int[]{3, 3, 3, 3, 2, 4, 1, 2, 4, 4, 0, 0, 6, 6}) {
+            root.play(column);
+        }
+    }
+
+    @AfterEach
+    public void afterEachTest() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void whenBookIsGeneratedThenEveryPositionHasItsSolvedScore() throws IOException {
+        int written = new OpeningBookGenerator().generate(root, DEPTH, file);
+        OpeningBook tested = OpeningBook.open(file);
+
+        assertThat(tested.size()).isEqualTo(written);
+        assertThat(Files.size(file)).isEqualTo(OpeningBook.HEADER_SIZE + (long) written * OpeningBook.ENTRY_SIZE);
+        checkScores(tested, root, DEPTH, new Connect4Solver());
+    }
+
+    @Test
+    public void whenPositionIsNotInTheBookThenItIsNotFound() throws IOException {
+        new OpeningBookGenerator().generate(root, 1, file);
+        OpeningBook tested = OpeningBook.open(file);
+
+        assertThat(tested.getScore(new BitBoard())).isEqualTo(OpeningBook.NOT_FOUND);
+    }
+
+    @Test
+    public void whenSolverUsesTheBookThenPositionsAreAnsweredWithoutSearching() throws IOException {
+        new OpeningBookGenerator().generate(root, DEPTH, file);
+        Connect4Solver plain = new Connect4Solver();
+        Connect4Solver tested = new Connect4Solver();
+        tested.setOpeningBook(OpeningBook.open(file));
+
+        assertThat(tested.solve(root)).isEqualTo(plain.solve(root));
+        assertThat(tested.getNodeCount()).isZero();
+        assertThat(tested.bestMove(root)).isEqualTo(plain.bestMove(root));
+    }
+
+    @Test
+    public void whenFileIsNotABookThenOpeningFails() throws IOException {
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        assertThatThrownBy(() -> OpeningBook.open(file)).isInstanceOf(IOException.class);
+    }
+
+    private void checkScores(OpeningBook book, BitBoard position, int depth, Connect4Solver solver) {
+        if (position.isLastMoveWinning() || position.isFull()) return;
+        assertThat(book.getScore(position)).isEqualTo(solver.solve(position));
+        if (depth == 0) return;
+        for (int column = 0; column < BitBoard.COLUMNS; column++) {
+            if (!position.canPlay(column)) continue;
+            BitBoard child = position.copy();
+            child.play(column);
+            checkScores(book, child, depth - 1, solver);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelConnect4SolverSpec {
+
+    private ParallelConnect4Solver tested;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        tested = new ParallelConnect4Solver(4);
+    }
+
+    @AfterEach
+    public void afterEachTest() {
+        tested.close();
+    }
+
+    @Test
+    public void whenPositionsAreSolvedThenResultsAreTheSameAsTheSequentialSolver() {
+        Random random = new Random(11);
+        for (int i = 0; i < 40; i++) {
+            BitBoard position = randomPosition(random, 16 + random.nextInt(12));
+            Connect4Solver sequential = new Connect4Solver();
+            tested.reset();
+
+            assertThat(tested.solve(position)).isEqualTo(sequential.solve(position));
+            assertThat(tested.bestMove(position)).isEqualTo(sequential.bestMove(position));
+        }
+    }
+
+    @Test
+    public void whenTheGameIsOverThenThereIsNoBestMove() {
+        BitBoard position = new BitBoard();
+        for (int column : new int[]{0, 1, 0, 1, 0, 1, 0}) {
+            position.play(column);
+        }
+
+        assertThat(tested.solve(position)).isEqualTo(-18);
+        assertThat(tested.bestMove(position)).isEqualTo(-1);
+    }
+
+    @Test
+    public void whenAPositionIsSolvedThenNodesAreReported() {
+        BitBoard position = randomPosition(new Random(5), 14);
+
+        tested.solve(position);
+
+        assertThat(tested.getThreads()).isEqualTo(4);
+        assertThat(tested.getNodeCount()).isPositive();
+        assertThat(tested.getNodesPerSecond()).isPositive();
+    }
+
+    @Test
+    public void whenSpeedupIsMeasuredThenThereIsOneValuePerThreadCount() {
+        BitBoard position = randomPosition(new Random(8), 20);
+
+        double[] speedup = ParallelConnect4Solver.measureSpeedup(position, 1, 2, 4);
+
+        assertThat(speedup).hasSize(3);
+        for (double value : speedup) {
+            assertThat(value).isPositive();
+        }
+    }
+
+    private BitBoard randomPosition(Random random, int moves) {
+        while (true) {
+            BitBoard position = new BitBoard();
+            while (position.getMoves() < moves && !position.isLastMoveWinning()) {
+                int column = random.nextInt(BitBoard.COLUMNS);
+                if (position.canPlay(column)) position.play(column);
+            }
+            if (!position.isLastMoveWinning() && Connect4Solver.winningColumn(position) < 0) return position;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.iesvdm.tddjava.connect4;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TablebaseSpec {
+
+    private static final Tablebase.Result[] RESULTS = {Tablebase.Result.LOSS, Tablebase.Result.DRAW, Tablebase.Result.WIN};
+
+    private Path file;
+
+    @BeforeEach
+    public void beforeEachTest() throws IOException {
+        file = Files.createTempFile("connect4", ".tablebase");
+    }
+
+    @AfterEach
+    public void afterEachTest() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void whenTableIsGeneratedThenEveryPositionHasAValueSlot() throws IOException {
+        long written = new TablebaseGenerator(2).generate(4, 4, 4, file);
+        Tablebase tested = Tablebase.open(file);
+
+        assertThat(written).isEqualTo(201755L);
+        assertThat(tested.size()).isEqualTo(written);
+        assertThat(Files.size(file)).isEqualTo(16 + (written + 15) / 16 * 4);
+    }
+
+    @Test
+    public void whenConnectingThreeOnA4x4BoardThenResultsMatchASearch() throws IOException {
+        checkAgainstSearch(4, 4, 3);
+    }
+
+    @Test
+    public void whenConnectingFourOnA4x4BoardThenResultsMatchASearch() throws IOException {
+        checkAgainstSearch(4, 4, 4);
+    }
+
+    @Test
+    public void whenConnectingThreeOnA5x4BoardThenResultsMatchASearch() throws IOException {
+        checkAgainstSearch(5, 4, 3);
+    }
+
+    @Test
+    public void whenTableIsOpenedAgainThenResultsAreTheSame() throws IOException {
+        new TablebaseGenerator(2).generate(4, 4, 3, file);
+        ConnectNGame game = new ConnectNGame(4, 4, 3);
+        game.play(1);
+
+        assertThat(Tablebase.open(file).getResult(game)).isEqualTo(Tablebase.open(file).getResult(game));
+    }
+
+    @Test
+    public void whenGameHasAnotherSizeThenLookupFails() throws IOException {
+        new TablebaseGenerator(2).generate(4, 4, 3, file);
+        Tablebase tested = Tablebase.open(file);
+
+        assertThatThrownBy(() -> tested.getResult(ConnectNGame.connect4())).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void whenFileIsNotATablebaseThenOpeningFails() throws IOException {
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        assertThatThrownBy(() -> Tablebase.open(file)).isInstanceOf(IOException.class);
+    }
+
+    private void checkAgainstSearch(int columns, int rows, int discsToWin) throws IOException {
+        new TablebaseGenerator(3).generate(columns, rows, discsToWin, file);
+        Tablebase tested = Tablebase.open(file);
+        Map<String, Integer> memo = new HashMap<>();
+        Random random = new Random(3);
+        for (int game = 0; game < 200; game++) {
+            ConnectNGame position = new ConnectNGame(columns, rows, discsToWin);
+            while (true) {
+                assertThat(tested.getResult(position)).isEqualTo(RESULTS[search(position, memo) + 1]);
+                if (position.isLastMoveWinning() || position.isFull()) break;
+                int column;
+                do {
+                    column = random.nextInt(columns);
+                } while (!position.canPlay(column));
+                position.play(column);
+            }
+        }
+    }
+
+    /**
+     * Negamax con memoria: 1 si gana el jugador que mueve, 0 tablas, -1 si pierde.
+     */
+    private int search(ConnectNGame game, Map<String, Integer> memo) {
+        if (game.isLastMoveWinning()) return -1;
+        if (game.isFull()) return 0;
+        StringBuilder key = new StringBuilder();
+        for (int column = 0; column < game.getColumns(); column++) {
+            for (int row = 0; row < game.getHeight(column); row++) {
+                key.append(game.getPlayerAt(column, row));
+            }
+            key.append('|');
+        }
+        Integer known = memo.get(key.toString());
+        if (known != null) return known;
+        int best = -1;
+        for (int column = 0; column < game.getColumns() && best < 1; column++) {
+            if (!game.canPlay(column)) continue;
+            game.play(column);
+            best = Math.max(best, -search(game, memo));
+            game.undo();
+        }
+        memo.put(key.toString(), best);
+        return best;
+    }
+}
@@ -0,0 +1,161 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+public class MnkGameSpec {
+
+    @Test
+    public void whenOutsideBoardThenRuntimeException() {
+        MnkGame game = new MnkGame(19, 15, 5);
+        assertEquals("X is outside board", assertThrows(RuntimeException.class, () -> game.play(20, 1)).getMessage());
+        assertEquals("X is outside board", assertThrows(RuntimeException.class, () -> game.play(19, 16)).getMessage());
+        assertEquals("No winner", game.play(19, 15));
+    }
+
+    @Test
+    public void whenOccupiedThenRuntimeException() {
+        MnkGame game = new MnkGame(19, 19, 5);
+        game.play(10, 10);
+        assertEquals("Box is occupied", assertThrows(RuntimeException.class, () -> game.play(10, 10)).getMessage());
+    }
+
+    @Test
+    public void whenInvalidSizeThenRuntimeException() {
+        assertThrows(RuntimeException.class, () -> new MnkGame(0, 3, 3));
+        assertThrows(RuntimeException.class, () -> new MnkGame(3, 3, 0));
+    }
+
+    @Test
+    public void whenFiveInARowThenWinner() {
+        MnkGame game = new MnkGame(19, 19, 5);
+        for (int i = 1; i <= 4; i++) {
+            assertEquals("No winner", game.play(i, i)); // X
+            assertEquals("No winner", game.play(i, 19)); // O
+        }
+        assertEquals("X is the winner", game.play(5, 5));
+    }
+
+    @Test
+    public void whenTheGapBetweenTwoRunsIsFilledThenWinner() {
+        MnkGame game = new MnkGame(19, 19, 5);
+        int[] ys = {1, 2, 4, 5};
+        for (int y : ys) {
+            game.play(7, y); // X
+            game.play(1, 19 - y); // O
+        }
+        assertEquals("X is the winner", game.play(7, 3));
+    }
+
+    @Test
+    public void whenFourInARowThenNoWinnerYet() {
+        MnkGame game = new MnkGame(19, 19, 5);
+        for (int i = 0; i < 4; i++) {
+            game.play(10 - i, 5 + i); // X
+            assertEquals("No winner", game.play(19, 1 + i)); // O
+        }
+        assertEquals("X is the winner", game.play(6, 9));
+    }
+
+    @Test
+    public void whenRunsReachTheEdgeThenTheyDoNotWrapAround() {
+        // En un tablero 3x4 la casilla (1, 4) y la (2, 1) son consecutivas en memoria
+        MnkGame game = new MnkGame(3, 4, 3);
+        game.play(1, 3); // X
+        game.play(3, 1); // O
+        game.play(1, 4); // X
+        game.play(3, 2); // O
+        assertEquals("No winner", game.play(2, 1)); // X
+    }
+
+    @Test
+    public void whenPlayedAs3x3Then3InARowGivesTheSameResultsAsTicTacToe() {
+        Random random = new Random(3);
+        for (int round = 0; round < 500; round++) {
+            TicTacToe ticTacToe = new TicTacToe();
+            MnkGame game = new MnkGame(3, 3, 3);
+            String result = "No winner";
+            while (result.equals("No winner")) {
+                int x = 1 + random.nextInt(3);
+                int y = 1 + random.nextInt(3);
+                try {
+                    result = ticTacToe.play(x, y);
+                } catch (RuntimeException e) {
+                    assertEquals(e.getMessage(), assertThrows(RuntimeException.class, () -> game.play(x, y)).getMessage());
+                    continue;
+                }
+                assertEquals(result, game.play(x, y));
+                assertEquals(ticTacToe.nextPlayer(), game.nextPlayer());
+            }
+        }
+    }
+
+    @Test
+    public void whenPlayGoesOnPastRunsOfKThenEveryResultMatchesCountingTheLine() {
+        // Con k = 3 en 8x8 las líneas se alargan mucho más allá del tope de k
+        playWholeBoard(8, 8, 3, new Random(5));
+    }
+
+    @Test
+    public void whenKIsOver127ThenRunsAreStillCounted() {
+        playWholeBoard(2, 300, 130, new Random(11));
+        MnkGame game = new MnkGame(2, 300, 130);
+        for (int y = 1; y < 130; y++) {
+            assertEquals("No winner", game.play(1, y)); // X
+            assertEquals("No winner", game.play(2, y)); // O
+        }
+        assertEquals("X is the winner", game.play(1, 130));
+    }
+
+    @Test
+    public void whenKIsTooBigThenException() {
+        assertThrows(RuntimeException.class, () -> new MnkGame(1, 3, Short.MAX_VALUE + 1));
+    }
+
+    /**
+     * Plays every box in random order, checking each result against the
+     * longest line through the box, counted mark by mark.
+     */
+    private static void playWholeBoard(int m, int n, int k, Random random) {
+        MnkGame game = new MnkGame(m, n, k);
+        char[][] marks = new char[m][n];
+        List<Integer> boxes = new ArrayList<>();
+        for (int box = 0; box < m * n; box++) {
+            boxes.add(box);
+        }
+        Collections.shuffle(boxes, random);
+        for (int i = 0; i < boxes.size(); i++) {
+            int x = boxes.get(i) / n;
+            int y = boxes.get(i) % n;
+            char player = game.nextPlayer();
+            marks[x][y] = player;
+            String expected = longestLine(marks, x, y) >= k ? player + " is the winner"
+                    : i == boxes.size() - 1 ? "The result is draw" : "No winner";
+            assertEquals(expected, game.play(x + 1, y + 1));
+        }
+    }
+
+    private static int longestLine(char[][] marks, int x, int y) {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        int longest = 0;
+        for (int[] direction : directions) {
+            int length = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                int i = x + sign * direction[0];
+                int j = y + sign * direction[1];
+                while (i >= 0 && i < marks.length && j >= 0 && j < marks[i].length && marks[i][j] == marks[x][y]) {
+                    length++;
+                    i += sign * direction[0];
+                    j += sign * direction[1];
+                }
+            }
+            longest = Math.max(longest, length);
+        }
+        return longest;
+    }
+}
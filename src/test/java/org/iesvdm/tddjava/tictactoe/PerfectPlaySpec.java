@@ -0,0 +1,133 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+public class PerfectPlaySpec {
+
+    private TicTacToe ticTacToe;
+
+    @BeforeEach
+    public final void before() {
+        ticTacToe = new TicTacToe();
+    }
+
+    @Test
+    public void givenEmptyBoardWhenEvaluateThenDraw() {
+        assertEquals('\0', ticTacToe.evaluate());
+        int box = ticTacToe.bestMove();
+        assertTrue(box >= 0 && box < 9);
+    }
+
+    @Test
+    public void givenWinningBoxWhenBestMoveThenTakeIt() {
+        ticTacToe.play(1, 1); // X
+        ticTacToe.play(2, 1); // O
+        ticTacToe.play(1, 2); // X
+        ticTacToe.play(2, 2); // O
+        assertEquals(2, ticTacToe.bestMove());
+        assertEquals('X', ticTacToe.evaluate());
+    }
+
+    @Test
+    public void givenOpponentThreatWhenBestMoveThenBlockIt() {
+        ticTacToe.play(1, 1); // X
+        ticTacToe.play(2, 2); // O
+        ticTacToe.play(1, 2); // X
+        assertEquals(2, ticTacToe.bestMove());
+    }
+
+    @Test
+    public void givenWinnerWhenBestMoveThenNoMove() {
+        ticTacToe.play(1, 1); // X
+        ticTacToe.play(2, 1); // O
+        ticTacToe.play(1, 2); // X
+        ticTacToe.play(2, 2); // O
+        ticTacToe.play(1, 3); // X
+        assertEquals(-1, ticTacToe.bestMove());
+        assertEquals('X', ticTacToe.evaluate());
+    }
+
+    @Test
+    public void givenTurnLostOnOccupiedBoxWhenBestMoveThenItIsForThePlayerToMove() {
+        ticTacToe.play(1, 1); // X
+        assertThrows(RuntimeException.class, () -> ticTacToe.play(1, 1)); // O pierde el turno
+        ticTacToe.play(1, 2); // X
+        assertEquals('O', ticTacToe.nextPlayer());
+        assertEquals(2, ticTacToe.bestMove());
+
+        int[] marks = {1, 1, 0, 0, 0, 0, 0, 0, 0};
+        int expected = minimax(marks, 2);
+        assertEquals(expected == 0 ? '\0' : expected > 0 ? 'O' : 'X', ticTacToe.evaluate());
+    }
+
+    @Test
+    public void givenTurnLostOnOccupiedBoxWhenEvaluateThenNoException() {
+        ticTacToe.play(1, 1); // X
+        assertThrows(RuntimeException.class, () -> ticTacToe.play(1, 1));
+        ticTacToe.play(2, 2); // X otra vez
+        assertEquals(8, ticTacToe.bestMove());
+        assertDoesNotThrow(() -> ticTacToe.evaluate());
+    }
+
+    @Test
+    public void whenBothPlayPerfectlyThenDraw() {
+        String result = "No winner";
+        while (result.equals("No winner")) {
+            int box = ticTacToe.bestMove();
+            result = ticTacToe.play(box / 3 + 1, box % 3 + 1);
+        }
+        assertEquals("The result is draw", result);
+    }
+
+    @Test
+    public void whenRandomGamesArePlayedThenEvaluationMatchesMinimax() {
+        Random random = new Random(7);
+        for (int game = 0; game < 300; game++) {
+            ticTacToe = new TicTacToe();
+            int[] marks = new int[9];
+            int moves = 0;
+            String result = "No winner";
+            while (result.equals("No winner")) {
+                int expected = minimax(marks, moves % 2 == 0 ? 1 : 2);
+                char winner = expected == 0 ? '\0' : (expected > 0) == (moves % 2 == 0) ? 'X' : 'O';
+                assertEquals(winner, ticTacToe.evaluate());
+                int box = ticTacToe.bestMove();
+                marks[box] = moves % 2 == 0 ? 1 : 2;
+                assertEquals(expected, -minimax(marks, moves % 2 == 0 ? 2 : 1), "best move " + box);
+                marks[box] = 0;
+
+                // Jugamos una casilla libre al azar
+                do {
+                    box = random.nextInt(9);
+                } while (marks[box] != 0);
+                marks[box] = moves++ % 2 == 0 ? 1 : 2;
+                result = ticTacToe.play(box / 3 + 1, box % 3 + 1);
+            }
+        }
+    }
+
+    /**
+     * Plain minimax: 1 if the player to move wins, -1 if it loses, 0 for a
+     * draw.
+     */
+    private static int minimax(int[] marks, int player) {
+        int[][] lines = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}, {0, 3, 6}, {1, 4, 7}, {2, 5, 8}, {0, 4, 8}, {2, 4, 6}};
+        for (int[] line : lines) {
+            if (marks[line[0]] != 0 && marks[line[0]] == marks[line[1]] && marks[line[1]] == marks[line[2]]) {
+                return marks[line[0]] == player ? 1 : -1;
+            }
+        }
+        int best = Integer.MIN_VALUE;
+        for (int box = 0; box < 9; box++) {
+            if (marks[box] != 0) continue;
+            marks[box] = player;
+            best = Math.max(best, -minimax(marks, 3 - player));
+            marks[box] = 0;
+        }
+        return best == Integer.MIN_VALUE ? 0 : best;
+    }
+}
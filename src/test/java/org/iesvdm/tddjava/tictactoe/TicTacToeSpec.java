@@ -32,6 +32,13 @@ public class TicTacToeSpec {
 
     }
 
+    @Test
+    public void whenInvalidPlayThenMessageTellsWhy() {
+        ticTacToe.play(2, 1);
+        assertEquals("Box is occupied", assertThrows(RuntimeException.class, () -> ticTacToe.play(2, 1)).getMessage());
+        assertEquals("X is outside board", assertThrows(RuntimeException.class, () -> ticTacToe.play(0, 1)).getMessage());
+    }
+
     @Test
     public void givenFirstTurnWhenNextPlayerThenX() {
         assertEquals('X', ticTacToe.nextPlayer());
@@ -104,4 +111,60 @@ public class TicTacToeSpec {
         assertEquals("The result is draw", actual);
     }
 
+    @Test
+    public void whenTryPlayOutsideBoardThenOutOfBounds() {
+        assertEquals(TicTacToe.PlayResult.OUT_OF_BOUNDS, ticTacToe.tryPlay(0, 2));
+        assertEquals(TicTacToe.PlayResult.OUT_OF_BOUNDS, ticTacToe.tryPlay(2, 4));
+        assertEquals('X', ticTacToe.nextPlayer());
+    }
+
+    @Test
+    public void whenTryPlayOccupiedThenTurnIsKept() {
+        assertEquals(TicTacToe.PlayResult.OK, ticTacToe.tryPlay(2, 1));
+        assertEquals(TicTacToe.PlayResult.OCCUPIED, ticTacToe.tryPlay(2, 1));
+        assertEquals('O', ticTacToe.nextPlayer());
+    }
+
+    @Test
+    public void whenTryPlayThenResultTellsWinnerOrDraw() {
+        ticTacToe.tryPlay(2, 1); // X
+        ticTacToe.tryPlay(1, 1); // O
+        ticTacToe.tryPlay(3, 1); // X
+        ticTacToe.tryPlay(1, 2); // O
+        ticTacToe.tryPlay(2, 2); // X
+        assertEquals(TicTacToe.PlayResult.WIN_O, ticTacToe.tryPlay(1, 3));
+
+        ticTacToe = new TicTacToe();
+        int[][] boxes = {{1, 1}, {1, 2}, {1, 3}, {2, 1}, {2, 3}, {2, 2}, {3, 1}, {3, 3}};
+        for (int[] box : boxes) {
+            assertEquals(TicTacToe.PlayResult.OK, ticTacToe.tryPlay(box[0], box[1]));
+        }
+        assertEquals(TicTacToe.PlayResult.DRAW, ticTacToe.tryPlay(3, 2));
+    }
+
+    @Test
+    public void whenResetThenBoardIsEmptyAndXPlays() {
+        ticTacToe.play(1, 1);
+        ticTacToe.play(2, 2);
+        assertEquals(0b111_101_110, ticTacToe.legalMoves());
+
+        ticTacToe.reset();
+
+        assertEquals(0b111_111_111, ticTacToe.legalMoves());
+        assertEquals('X', ticTacToe.nextPlayer());
+        assertEquals("No winner", ticTacToe.play(1, 1));
+    }
+
+    @Test
+    public void givenDiagonalWinnerWhenPlayOffTheDiagonalsThenStillWinner() {
+        ticTacToe.play(1, 1); // X
+        ticTacToe.play(1, 2); // O
+        ticTacToe.play(2, 2); // X
+        ticTacToe.play(1, 3); // O
+        assertEquals("X is the winner", ticTacToe.play(3, 3)); // X
+        ticTacToe.play(2, 1); // O
+        String actual = ticTacToe.play(3, 2); // X
+        assertEquals("X is the winner", actual);
+    }
+
 }
@@ -0,0 +1,80 @@
+package org.iesvdm.tddjava.tictactoe;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+public class TicTacToeTournamentSpec {
+
+    private static final int RANDOM = 0;
+    private static final int FIRST_FREE = 1;
+    private static final int PERFECT = 2;
+
+    private final List<TicTacToeStrategy> strategies =
+            List.of(TicTacToeStrategy.RANDOM, TicTacToeStrategy.FIRST_FREE, TicTacToeStrategy.PERFECT);
+
+    @Test
+    public void whenTournamentIsPlayedThenEveryPairPlaysOnBothSides() {
+        TournamentStats stats = new TicTacToeTournament(strategies, 2).run(1001, 1);
+
+        assertEquals(6 * 1001, stats.getGames());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (i == j) continue;
+                assertEquals(2 * 1001, stats.getGames(i, j));
+                assertEquals(stats.getWins(i, j), stats.getLosses(j, i));
+                assertEquals(stats.getDraws(i, j), stats.getDraws(j, i));
+            }
+        }
+        assertTrue(stats.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void whenPerfectStrategyPlaysThenItNeverLoses() {
+        TournamentStats stats = new TicTacToeTournament(strategies, 2).run(2000, 7);
+
+        assertEquals(0, stats.getLosses(PERFECT, RANDOM));
+        assertEquals(0, stats.getLosses(PERFECT, FIRST_FREE));
+        assertTrue(stats.getWinRate(PERFECT, RANDOM) > 0.5);
+        // Contra el que juega siempre la primera casilla libre gana todas
+        assertEquals(4000, stats.getWins(PERFECT, FIRST_FREE));
+    }
+
+    @Test
+    public void whenSameSeedAndThreadsThenSameResults() {
+        TournamentStats first = new TicTacToeTournament(strategies, 3).run(500, 11);
+        TournamentStats second = new TicTacToeTournament(strategies, 3).run(500, 11);
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(first.getWins(i, j), second.getWins(i, j));
+                assertEquals(first.getDraws(i, j), second.getDraws(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void whenWinRateIsEstimatedThenTheIntervalContainsIt() {
+        TournamentStats stats = new TicTacToeTournament(strategies, 1).run(300, 3);
+
+        double rate = stats.getWinRate(RANDOM, FIRST_FREE);
+        assertTrue(stats.getWinRateLower(RANDOM, FIRST_FREE) < rate);
+        assertTrue(stats.getWinRateUpper(RANDOM, FIRST_FREE) > rate);
+        assertTrue(stats.getWinRateLower(PERFECT, FIRST_FREE) > 0.99);
+        assertTrue(stats.getWinRateUpper(PERFECT, FIRST_FREE) > 0.9999);
+    }
+
+    @Test
+    public void whenStrategyPlaysAnOccupiedBoxThenItLoses() {
+        TicTacToeStrategy cheater = (game, random) -> 4;
+        TournamentStats stats = new TicTacToeTournament(List.of(TicTacToeStrategy.FIRST_FREE, cheater), 1).run(10, 5);
+
+        assertEquals(20, stats.getWins(0, 1));
+    }
+
+    @Test
+    public void whenFewerThanTwoStrategiesThenRuntimeException() {
+        assertThrows(RuntimeException.class, () -> new TicTacToeTournament(List.of(TicTacToeStrategy.RANDOM)));
+    }
+}